@@ -0,0 +1,190 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class measuring the engines on generated road-like grid graphs.    *
+ **************************************************************************/
+
+public class Benchmark
+{
+    // The amount of searches that are timed for every measurement
+    public static final int QUERIES = 200;
+
+    public static void main(String[] args)
+    {
+        int side = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        for (int maxWeight : new int[] {10, 1000, 100000})
+        {
+            FrozenGraph<Integer> g = roadGrid(side, side, maxWeight, 42);
+            System.out.println("\nGrid " + side + "x" + side + ", edge weights 1-" + maxWeight + ":");
+            compareQueues(g);
+        }
+
+        System.out.println("\nGrid " + side + "x" + side + ", edge weights 1-1000, vertex orders:");
+        compareOrders(roadGrid(side, side, 1000, 42), side);
+
+        System.out.println("\nGrid " + side + "x" + side + ", edge weights 1-1000, compressed edges:");
+        compareCompression(roadGrid(side, side, 1000, 42));
+    }
+
+    // Times the binary heap against the bucket queue and checks that they agree
+    public static void compareQueues(FrozenGraph<Integer> g)
+    {
+        DijkstraEngine<Integer> heap = new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BINARY_HEAP);
+        DijkstraEngine<Integer> buckets = new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BUCKETS);
+        DijkstraEngine<Integer> automatic = new DijkstraEngine<Integer>(g);
+
+        long heapTime = time(heap, g, 1);
+        long bucketTime = time(buckets, g, 1);
+        System.out.println("Binary heap: " + heapTime / QUERIES / 1000 + " us/query");
+        System.out.println("Buckets:     " + bucketTime / QUERIES / 1000 + " us/query");
+        System.out.println("Automatic choice: " + (automatic.usesBuckets() ? "buckets" : "binary heap"));
+
+        ShortestPathTree<Integer> a = heap.shortestPaths(0);
+        ShortestPathTree<Integer> b = buckets.shortestPaths(0);
+        for (int v = 0; v < g.size(); v++)
+            if (a.distance(v) != b.distance(v))
+                throw new IllegalStateException ("Distances to " + v + " differ!");
+    }
+
+    // Times the searches on a grid with its vertices shuffled, and on the same grid
+    // reordered by each of the orders of VertexOrdering, and checks that they agree
+    public static void compareOrders(FrozenGraph<Integer> grid, int columns)
+    {
+        // Shuffle the vertices, like a graph built in no particular order
+        Random random = new Random(7);
+        int[] shuffle = new int[grid.size()];
+        for (int v = 0; v < shuffle.length; v++)
+        {
+            int other = random.nextInt(v + 1);
+            shuffle[v] = shuffle[other];
+            shuffle[other] = v;
+        }
+        FrozenGraph<Integer> shuffled = grid.reorder(shuffle);
+
+        double[] x = new double[shuffled.size()];
+        double[] y = new double[shuffled.size()];
+        for (int v = 0; v < shuffled.size(); v++)
+        {
+            x[v] = shuffled.vertex(v) % columns;
+            y[v] = shuffled.vertex(v) / columns;
+        }
+
+        String[] names = {"Shuffled:    ", "BFS:         ", "RCM:         ", "Hilbert:     "};
+        List<FrozenGraph<Integer>> graphs = Arrays.asList(shuffled,
+            shuffled.reorder(VertexOrdering.breadthFirst(shuffled)),
+            shuffled.reorder(VertexOrdering.reverseCuthillMcKee(shuffled)),
+            shuffled.reorder(VertexOrdering.hilbert(shuffled, x, y)));
+
+        ShortestPathTree<Integer> expected = new DijkstraEngine<Integer>(shuffled).shortestPaths(0);
+        for (int index = 0; index < graphs.size(); index++)
+        {
+            DijkstraEngine<Integer> engine = new DijkstraEngine<Integer>(graphs.get(index));
+            long time = time(engine, graphs.get(index), 1);
+            System.out.printf("%s%6d us/query, average edge span %.1f%n", names[index],
+                              time / QUERIES / 1000, VertexOrdering.averageEdgeSpan(graphs.get(index)));
+
+            ShortestPathTree<Integer> tree = engine.shortestPaths(0);
+            for (int v = 0; v < grid.size(); v++)
+                if (tree.distance(v) != expected.distance(v))
+                    throw new IllegalStateException ("Distances to " + v + " differ!");
+        }
+    }
+
+    // Times the searches on the given graph against the same graph with its edges
+    // compressed, and checks that they agree
+    public static void compareCompression(FrozenGraph<Integer> g)
+    {
+        CompressedGraph<Integer> compressed = new CompressedGraph<Integer>(g);
+        DijkstraEngine<Integer> plain = new DijkstraEngine<Integer>(g);
+        DijkstraEngine<Integer> decoding = new DijkstraEngine<Integer>(compressed);
+
+        long plainTime = time(plain, g, 1);
+        long decodingTime = time(decoding, g, 1);
+        System.out.println("Frozen:     " + plainTime / QUERIES / 1000 + " us/query, "
+                           + (4L * (g.size() + 1) + 8L * g.edgeCount()) + " bytes of edges");
+        System.out.println("Compressed: " + decodingTime / QUERIES / 1000 + " us/query, "
+                           + compressed.edgeBytes() + " bytes of edges");
+
+        ShortestPathTree<Integer> a = plain.shortestPaths(0);
+        ShortestPathTree<Integer> b = decoding.shortestPaths(0);
+        for (int v = 0; v < g.size(); v++)
+            if (a.distance(v) != b.distance(v))
+                throw new IllegalStateException ("Distances to " + v + " differ!");
+    }
+
+    // Returns the time in nanoseconds it takes to run QUERIES searches from
+    // pseudo random sources, after running as many searches to warm up
+    public static long time(DijkstraEngine<Integer> engine, FrozenGraph<Integer> g, long seed)
+    {
+        Random random = new Random(seed);
+        for (int i = 0; i < QUERIES; i++)
+            engine.shortestPaths(random.nextInt(g.size()));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++)
+            engine.shortestPaths(random.nextInt(g.size()));
+        return System.nanoTime() - start;
+    }
+
+    // Returns a grid where every vertex has an edge in both directions to each of
+    // its up to four neighbours, with pseudo random weights between 1 and maxWeight
+    public static FrozenGraph<Integer> roadGrid(int rows, int columns, int maxWeight, long seed)
+    {
+        Random random = new Random(seed);
+        int n = rows * columns;
+        Integer[] vertices = new Integer[n];
+        int[][] weights = new int[n][4];
+        for (int v = 0; v < n; v++)
+        {
+            vertices[v] = v;
+            for (int direction = 0; direction < 4; direction++)
+                weights[v][direction] = -1;
+        }
+
+        // Directions: 0 right, 1 down, 2 left, 3 up
+        for (int v = 0; v < n; v++)
+        {
+            if ((v + 1) % columns != 0)
+                weights[v][0] = weights[v + 1][2] = 1 + random.nextInt(maxWeight);
+            if (v + columns < n)
+                weights[v][1] = weights[v + columns][3] = 1 + random.nextInt(maxWeight);
+        }
+
+        int[] offsets = {1, columns, -1, -columns};
+        int[] firstEdge = new int[n + 1];
+        int[] edgeTarget = new int[4 * n];
+        int[] edgeWeight = new int[4 * n];
+        int edge = 0;
+        for (int v = 0; v < n; v++)
+        {
+            firstEdge[v] = edge;
+            for (int direction = 0; direction < 4; direction++)
+            {
+                int w = weights[v][direction];
+                if (w == -1)
+                    continue;
+
+                // Keep the edges sorted ascending by weight, like WDGraph does
+                int position = edge;
+                while (position > firstEdge[v] && edgeWeight[position - 1] > w)
+                {
+                    edgeTarget[position] = edgeTarget[position - 1];
+                    edgeWeight[position] = edgeWeight[position - 1];
+                    position--;
+                }
+                edgeTarget[position] = v + offsets[direction];
+                edgeWeight[position] = w;
+                edge++;
+            }
+        }
+        firstEdge[n] = edge;
+
+        return new FrozenGraph<Integer>(vertices, firstEdge,
+                                        Arrays.copyOf(edgeTarget, edge),
+                                        Arrays.copyOf(edgeWeight, edge));
+    }
+}
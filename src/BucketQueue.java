@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a monotone priority queue of vertex indices,    *
+ * using a circular array of buckets (Dial's algorithm). All queued keys  *
+ * must lie between the last extracted key and that key plus the largest  *
+ * edge weight, which always holds for Dijkstra with integer weights.     *
+ **************************************************************************/
+
+class BucketQueue implements VertexQueue
+{
+    // First vertex of every bucket, or -1 if the bucket is empty
+    private final int[] head;
+
+    // Next and previous vertex in the bucket of every vertex
+    private final int[] next, previous;
+
+    // Key of every vertex
+    private final long[] keys;
+
+    // Checks if a vertex is queued
+    private final boolean[] queued;
+
+    // The smallest key that can still be queued
+    private long currentKey = 0;
+
+    // The amount of queued vertices
+    private int size = 0;
+
+    public BucketQueue (int capacity, int maxEdgeWeight)
+    {
+        head = new int[maxEdgeWeight + 1];
+        next = new int[capacity];
+        previous = new int[capacity];
+        keys = new long[capacity];
+        queued = new boolean[capacity];
+        Arrays.fill(head, -1);
+    }
+
+    public boolean isEmpty ()
+    {
+        return size == 0;
+    }
+
+    public void update (int vertex, long key)
+    {
+        if (queued[vertex])
+            this.unlink (vertex);
+        else
+        {
+            queued[vertex] = true;
+            size++;
+        }
+
+        // The first key after the queue ran empty need not be the smallest one to come
+        if (size == 1 || key < currentKey)
+            currentKey = key;
+
+        keys[vertex] = key;
+        int bucket = (int) (key % head.length);
+        previous[vertex] = -1;
+        next[vertex] = head[bucket];
+        if (head[bucket] != -1)
+            previous[head[bucket]] = vertex;
+        head[bucket] = vertex;
+    }
+
+    public int extractMin ()
+    {
+        int bucket = (int) (currentKey % head.length);
+        while (head[bucket] == -1)
+        {
+            currentKey++;
+            bucket = bucket + 1 == head.length ? 0 : bucket + 1;
+        }
+
+        int min = head[bucket];
+        this.unlink (min);
+        queued[min] = false;
+        size--;
+        return min;
+    }
+
+    public void clear ()
+    {
+        for (int bucket = 0; size > 0 && bucket < head.length; bucket++)
+        {
+            while (head[bucket] != -1)
+            {
+                queued[head[bucket]] = false;
+                size--;
+                head[bucket] = next[head[bucket]];
+            }
+        }
+        currentKey = 0;
+    }
+
+    // Removes the given vertex from its bucket
+    private void unlink (int vertex)
+    {
+        if (previous[vertex] != -1)
+            next[previous[vertex]] = next[vertex];
+        else
+            head[(int) (keys[vertex] % head.length)] = next[vertex];
+        if (next[vertex] != -1)
+            previous[next[vertex]] = previous[vertex];
+    }
+}
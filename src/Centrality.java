@@ -0,0 +1,386 @@
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class computing the betweenness and closeness centrality of the    *
+ * vertices of a frozen graph, with one Dijkstra search per source, run   *
+ * in parallel. Every thread adds the results of its sources to its own   *
+ * array, and the arrays are summed once all threads are done.            *
+ * Betweenness is computed with the algorithm of Brandes: the share of    *
+ * the shortest paths between every ordered pair of other vertices that   *
+ * passes through a vertex, summed over all pairs. Closeness is the       *
+ * amount of vertices a vertex reaches divided by the sum of the          *
+ * distances to them, scaled by the share of all vertices it reaches, so  *
+ * that vertices reaching only a few close vertices do not rank first.    *
+ * For large graphs both can be estimated from the searches of a random   *
+ * sample of sources, whose size follows from the error that is allowed.  *
+ * The results are indexed like the vertices of the graph.                *
+ **************************************************************************/
+
+public class Centrality<E>
+{
+    // The graph whose vertices are ranked
+    private final FrozenGraph<E> graph;
+
+    // The graph with every edge reversed, for walking the shortest paths backwards
+    private final FrozenGraph<E> reverse;
+
+    public Centrality (FrozenGraph<E> graph) throws IllegalArgumentException
+    {
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+
+        this.graph = graph;
+        this.reverse = graph.reverse();
+    }
+
+    public Centrality (WDGraph<E> graph) throws IllegalArgumentException
+    {
+        this(graph.freeze());
+    }
+
+    // Returns the graph whose vertices are ranked
+    public FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Returns the amount of sources that have to be sampled so that, with probability at least
+    // 1 - delta, the estimates of all the given amount of values are off by at most epsilon
+    // times their largest possible contribution from one source
+    public static int sampleSize (int values, double epsilon, double delta) throws IllegalArgumentException
+    {
+        if (!(epsilon > 0) || !(delta > 0 && delta < 1))
+            throw new IllegalArgumentException ("Expected epsilon > 0 and 0 < delta < 1!");
+
+        // Hoeffding bound for every value, combined with the union bound
+        double samples = Math.ceil(Math.log(2.0 * Math.max(1, values) / delta) / (2 * epsilon * epsilon));
+        return samples >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) samples;
+    }
+
+    // Returns the betweenness of every vertex, computed on as many threads as there are processors
+    public double[] betweenness ()
+    {
+        return this.betweenness (Runtime.getRuntime().availableProcessors());
+    }
+
+    // Returns the betweenness of every vertex, computed on the given amount of threads
+    public double[] betweenness (int threads)
+    {
+        int[] sources = new int[graph.size()];
+        for (int v = 0; v < sources.length; v++)
+            sources[v] = v;
+
+        return this.betweenness (sources, 1, threads);
+    }
+
+    // Returns an estimate of the betweenness of every vertex from a random sample of sources,
+    // computed on the given amount of threads. With probability at least 1 - delta, every
+    // estimate is off by at most epsilon * n * (n - 2) for a graph of n vertices. If that needs
+    // as many samples as there are vertices, the betweenness is computed exactly instead.
+    public double[] betweenness (double epsilon, double delta, long seed, int threads)
+        throws IllegalArgumentException
+    {
+        int samples = sampleSize (graph.size(), epsilon, delta);
+        if (samples >= graph.size())
+            return this.betweenness (threads);
+
+        return this.betweenness (this.sample (samples, seed), (double) graph.size() / samples, threads);
+    }
+
+    // Returns the closeness of every vertex, computed on as many threads as there are processors
+    public double[] closeness ()
+    {
+        return this.closeness (Runtime.getRuntime().availableProcessors());
+    }
+
+    // Returns the closeness of every vertex, computed on the given amount of threads. A vertex
+    // that reaches no other vertex has closeness 0.
+    public double[] closeness (int threads)
+    {
+        final int n = graph.size();
+        final double[] closeness = new double[n];
+        final AtomicInteger nextSource = new AtomicInteger();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int thread = 0; thread < Math.max(1, threads); thread++)
+        {
+            tasks.add(new Callable<Object>()
+            {
+                public Object call ()
+                {
+                    Search search = new Search(n);
+                    for (int v = nextSource.getAndIncrement(); v < n; v = nextSource.getAndIncrement())
+                    {
+                        search.run (v, graph);
+                        long sum = 0;
+                        for (int index = 0; index < search.settledCount; index++)
+                            sum += search.space.distance[search.settled[index]];
+                        closeness[v] = closeness (search.settledCount, sum, n);
+                    }
+                    return null;
+                }
+            });
+        }
+        this.runAll (tasks);
+
+        return closeness;
+    }
+
+    // Returns an estimate of the closeness of every vertex from the distances to a random sample
+    // of vertices, computed on the given amount of threads. With probability at least 1 - delta,
+    // the estimated share of the vertices that every vertex reaches is off by at most epsilon,
+    // and its estimated average distance to all vertices, counting those it does not reach as
+    // 0, by at most epsilon times the largest distance in the graph. If that needs as many
+    // samples as there are vertices, the closeness is computed exactly instead.
+    public double[] closeness (double epsilon, double delta, long seed, int threads)
+        throws IllegalArgumentException
+    {
+        final int n = graph.size();
+        // Every vertex has two estimates, its reach and its sum of distances
+        int samples = sampleSize (2 * n, epsilon, delta);
+        if (samples >= n)
+            return this.closeness (threads);
+
+        final int[] sources = this.sample (samples, seed);
+        final AtomicInteger nextSample = new AtomicInteger();
+        final List<long[]> reached = new ArrayList<long[]>();
+        final List<double[]> sums = new ArrayList<double[]>();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int thread = 0; thread < Math.max(1, threads); thread++)
+        {
+            final long[] threadReached = new long[n];
+            final double[] threadSum = new double[n];
+            reached.add(threadReached);
+            sums.add(threadSum);
+            tasks.add(new Callable<Object>()
+            {
+                public Object call ()
+                {
+                    // A search from a sample in the reversed graph finds the distance
+                    // from every vertex to the sample
+                    Search search = new Search(n);
+                    for (int index = nextSample.getAndIncrement(); index < sources.length;
+                         index = nextSample.getAndIncrement())
+                    {
+                        search.run (sources[index], reverse);
+                        for (int settled = 0; settled < search.settledCount; settled++)
+                        {
+                            int v = search.settled[settled];
+                            threadReached[v]++;
+                            threadSum[v] += search.space.distance[v];
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        this.runAll (tasks);
+
+        double scale = (double) n / samples;
+        double[] closeness = new double[n];
+        for (int v = 0; v < n; v++)
+        {
+            long reachedSamples = 0;
+            double sum = 0;
+            for (int thread = 0; thread < reached.size(); thread++)
+            {
+                reachedSamples += reached.get(thread)[v];
+                sum += sums.get(thread)[v];
+            }
+            double reach = Math.max(1, reachedSamples * scale);
+            closeness[v] = closeness (reach, sum * scale, n);
+        }
+
+        return closeness;
+    }
+
+    // Returns the given amount of vertices with the highest of the given scores, highest first
+    public List<E> ranking (final double[] scores, int count) throws IllegalArgumentException
+    {
+        if (scores.length != graph.size())
+            throw new IllegalArgumentException ("Expected " + graph.size() + " scores!");
+
+        Integer[] order = new Integer[scores.length];
+        for (int v = 0; v < order.length; v++)
+            order[v] = v;
+        Arrays.sort(order, new Comparator<Integer>()
+        {
+            public int compare (Integer v1, Integer v2)
+            {
+                return Double.compare(scores[v2], scores[v1]);
+            }
+        });
+
+        List<E> ranking = new ArrayList<E>();
+        for (int index = 0; index < Math.min(count, order.length); index++)
+            ranking.add(graph.vertex(order[index]));
+
+        return ranking;
+    }
+
+    // Returns the betweenness computed from the given sources, multiplied by the given scale
+    private double[] betweenness (final int[] sources, double scale, int threads)
+    {
+        final int n = graph.size();
+        final AtomicInteger nextSource = new AtomicInteger();
+        final List<double[]> accumulators = new ArrayList<double[]>();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int thread = 0; thread < Math.max(1, threads); thread++)
+        {
+            final double[] betweenness = new double[n];
+            accumulators.add(betweenness);
+            tasks.add(new Callable<Object>()
+            {
+                public Object call ()
+                {
+                    Search search = new Search(n);
+                    for (int index = nextSource.getAndIncrement(); index < sources.length;
+                         index = nextSource.getAndIncrement())
+                    {
+                        search.run (sources[index], graph);
+                        search.addDependencies (betweenness);
+                    }
+                    return null;
+                }
+            });
+        }
+        this.runAll (tasks);
+
+        double[] betweenness = new double[n];
+        for (double[] accumulator : accumulators)
+            for (int v = 0; v < n; v++)
+                betweenness[v] += accumulator[v];
+        for (int v = 0; v < n; v++)
+            betweenness[v] *= scale;
+
+        return betweenness;
+    }
+
+    // Returns the closeness of a vertex that reaches the given amount of vertices, itself
+    // included, at the given sum of distances in a graph of the given size
+    private static double closeness (double reach, double sum, int size)
+    {
+        if (reach <= 1)
+            return 0;
+        return (reach - 1) / sum * ((reach - 1) / (size - 1));
+    }
+
+    // Returns the given amount of vertices, drawn at random with replacement
+    private int[] sample (int samples, long seed)
+    {
+        Random random = new Random(seed);
+        int[] sources = new int[samples];
+        for (int index = 0; index < samples; index++)
+            sources[index] = random.nextInt(graph.size());
+
+        return sources;
+    }
+
+    // Runs the given tasks, one thread each, and waits for all of them
+    private void runAll (List<Callable<Object>> tasks)
+    {
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try
+        {
+            for (Callable<Object> task : tasks)
+                results.add(executor.submit(task));
+            for (Future<Object> future : results)
+                Tasks.await(future, "computing the centrality");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    // The arrays of the searches of one thread, reused between its sources
+    private class Search
+    {
+        // The queue and distances of the last search
+        final SearchSpace space;
+        // The vertices in the order they were settled, and the position of every vertex in it
+        final int[] settled;
+        final int[] position;
+        int settledCount = 0;
+        // The amount of shortest paths to every vertex and the dependency of the source on it
+        final double[] paths;
+        final double[] dependency;
+
+        Search (int size)
+        {
+            space = new SearchSpace(size);
+            settled = new int[size];
+            position = new int[size];
+            paths = new double[size];
+            dependency = new double[size];
+        }
+
+        // Finds the distances from the given source in the given graph
+        void run (int source, FrozenGraph<E> searched)
+        {
+            space.reset();
+            settledCount = 0;
+            space.reach(source, 0, -1);
+            while (!space.isEmpty())
+            {
+                int v = space.settle();
+                position[v] = settledCount;
+                settled[settledCount++] = v;
+                long d = space.distance[v];
+                for (int edge = searched.firstEdge[v]; edge < searched.firstEdge[v + 1]; edge++)
+                    space.reach(searched.edgeTarget[edge], d + searched.edgeWeight[edge], v);
+            }
+        }
+
+        // Adds the dependency of the source of the last search of the graph on every vertex
+        // to the given betweenness
+        void addDependencies (double[] betweenness)
+        {
+            // Count the shortest paths, in the order the vertices were settled. Only predecessors
+            // settled earlier count, so that edges of weight 0 can not create cycles.
+            paths[settled[0]] = 1;
+            for (int index = 1; index < settledCount; index++)
+            {
+                int w = settled[index];
+                double count = 0;
+                for (int edge = reverse.firstEdge[w]; edge < reverse.firstEdge[w + 1]; edge++)
+                    if (this.isPredecessor (reverse.edgeTarget[edge], w, reverse.edgeWeight[edge]))
+                        count += paths[reverse.edgeTarget[edge]];
+                paths[w] = count;
+            }
+
+            // Pass the dependencies back along the shortest paths, from the farthest vertex on
+            for (int index = 0; index < settledCount; index++)
+                dependency[settled[index]] = 0;
+            for (int index = settledCount - 1; index > 0; index--)
+            {
+                int w = settled[index];
+                double share = (1 + dependency[w]) / paths[w];
+                for (int edge = reverse.firstEdge[w]; edge < reverse.firstEdge[w + 1]; edge++)
+                    if (this.isPredecessor (reverse.edgeTarget[edge], w, reverse.edgeWeight[edge]))
+                        dependency[reverse.edgeTarget[edge]] += paths[reverse.edgeTarget[edge]] * share;
+                betweenness[w] += dependency[w];
+            }
+        }
+
+        // Checks if the given vertex comes before the other one on a shortest path of the last
+        // search, through an edge of the given weight
+        private boolean isPredecessor (int v, int w, int edgeWeight)
+        {
+            long[] distance = space.distance;
+            return distance[v] != ShortestPathTree.INFINITY && position[v] < position[w]
+                   && distance[v] + edgeWeight == distance[w];
+        }
+    }
+}
@@ -0,0 +1,179 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing a frozen graph with its edges compressed. The   *
+ * neighbours of every vertex are sorted by index and stored as the       *
+ * differences between consecutive indices, each one in as few bytes as  *
+ * it needs. The first neighbour is stored relative to the vertex itself. *
+ * The weights are stored as their difference to the smallest weight,     *
+ * each one in as few bits as the largest difference needs. The engines   *
+ * decode the edges while they search. The compression works best when    *
+ * the vertices are ordered so that neighbours get close indices, see     *
+ * VertexOrdering.                                                        *
+ **************************************************************************/
+
+public class CompressedGraph<E>
+{
+    // The vertices of the graph, without edges, for looking up indices. They share
+    // the vertices array and index of the graph that was compressed.
+    final FrozenGraph<E> vertices;
+
+    // Index of the first edge of every vertex, which locates its weights
+    final int[] firstEdge;
+
+    // Index of the first byte of the neighbours of every vertex
+    final int[] firstByte;
+
+    // The encoded neighbours of all vertices
+    final byte[] targets;
+
+    // The weights minus the smallest weight, packed weightBits bits each
+    final long[] weights;
+
+    // The amount of bits of every packed weight
+    final int weightBits;
+
+    // Smallest and largest edge weight of the graph
+    final int minEdgeWeight, maxEdgeWeight;
+
+    // Compresses the edges of the given graph
+    public CompressedGraph (FrozenGraph<E> graph) throws IllegalArgumentException
+    {
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+
+        int n = graph.size();
+        int m = graph.edgeCount();
+        vertices = graph.withoutEdges();
+        minEdgeWeight = graph.minEdgeWeight();
+        maxEdgeWeight = graph.maxEdgeWeight();
+        weightBits = 32 - Integer.numberOfLeadingZeros(maxEdgeWeight - minEdgeWeight);
+
+        firstEdge = Arrays.copyOf(graph.firstEdge, n + 1);
+        firstByte = new int[n + 1];
+        weights = new long[(int) (((long) m * weightBits + 63) / 64)];
+
+        // At most five bytes per neighbour, the array is trimmed in the end
+        byte[] buffer = new byte[16];
+        int length = 0;
+        long[] sorted = new long[16];
+        for (int v = 0; v < n; v++)
+        {
+            firstByte[v] = length;
+
+            // Sort the edges by neighbour, keeping their weights
+            int degree = graph.edgeEnd(v) - graph.edgeStart(v);
+            if (sorted.length < degree)
+                sorted = new long[2 * degree];
+            for (int index = 0; index < degree; index++)
+            {
+                int edge = graph.edgeStart(v) + index;
+                sorted[index] = ((long) graph.edgeTarget(edge) << 32) | (graph.edgeWeight(edge) - minEdgeWeight);
+            }
+            Arrays.sort(sorted, 0, degree);
+
+            if (buffer.length - length < 5 * degree)
+                buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, length + 5 * degree));
+            int previous = v;
+            for (int index = 0; index < degree; index++)
+            {
+                int target = (int) (sorted[index] >>> 32);
+                // The first difference may be negative, so it is zigzag encoded
+                int delta = index == 0 ? ((target - v) << 1) ^ ((target - v) >> 31) : target - previous;
+                length = writeVarint (buffer, length, delta);
+                previous = target;
+                this.setWeight (graph.edgeStart(v) + index, (int) sorted[index]);
+            }
+        }
+        firstByte[n] = length;
+        targets = Arrays.copyOf(buffer, length);
+    }
+
+    // Returns the amount of vertices in the graph
+    public int size ()
+    {
+        return vertices.size();
+    }
+
+    // Returns the amount of edges in the graph
+    public int edgeCount ()
+    {
+        return firstEdge[firstEdge.length - 1];
+    }
+
+    // Returns the index of the given vertex, or -1 if the vertex is not found
+    public int indexOf (E vertex)
+    {
+        return vertices.indexOf(vertex);
+    }
+
+    // Returns the vertex at the given index
+    public E vertex (int index)
+    {
+        return vertices.vertex(index);
+    }
+
+    // Returns the smallest edge weight of the graph, or 0 if there are no edges
+    public int minEdgeWeight ()
+    {
+        return minEdgeWeight;
+    }
+
+    // Returns the largest edge weight of the graph, or 0 if there are no edges
+    public int maxEdgeWeight ()
+    {
+        return maxEdgeWeight;
+    }
+
+    // Returns the amount of bytes the edges take, where a frozen
+    // graph takes 4 * (size() + 1) + 8 * edgeCount()
+    public long edgeBytes ()
+    {
+        return 4L * firstEdge.length + 4L * firstByte.length + targets.length + 8L * weights.length;
+    }
+
+    // Returns the weight of the given edge, the edges of every vertex are numbered
+    // from firstEdge in the order of their neighbours
+    int weight (int edge)
+    {
+        if (weightBits == 0)
+            return minEdgeWeight;
+
+        long position = (long) edge * weightBits;
+        int word = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        long bits = weights[word] >>> shift;
+        if (shift + weightBits > 64)
+            bits |= weights[word + 1] << (64 - shift);
+        return minEdgeWeight + (int) (bits & ((1L << weightBits) - 1));
+    }
+
+    // Stores the given weight difference of the given edge
+    private void setWeight (int edge, int value)
+    {
+        if (weightBits == 0)
+            return;
+
+        long position = (long) edge * weightBits;
+        int word = (int) (position >>> 6);
+        int shift = (int) (position & 63);
+        weights[word] |= (long) value << shift;
+        if (shift + weightBits > 64)
+            weights[word + 1] |= (long) value >>> (64 - shift);
+    }
+
+    // Writes the given value seven bits per byte, the highest bit telling if more bytes
+    // follow, and returns the position after it
+    private static int writeVarint (byte[] buffer, int position, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+}
@@ -0,0 +1,560 @@
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a contraction hierarchy of a frozen graph. The  *
+ * vertices are contracted one by one, adding shortcut edges where needed *
+ * to keep the distances between the remaining vertices. A query then     *
+ * only has to search upwards, towards vertices contracted later, from    *
+ * both ends. Many-to-many distance tables are computed with buckets: the *
+ * backward searches from the targets leave their distances at every      *
+ * vertex they settle, where the forward searches from the sources pick   *
+ * them up. The point to point queries reuse one search space for either  *
+ * direction, so like the engines a hierarchy must not be shared by       *
+ * threads for them. Distance tables use search spaces of their own.      *
+ **************************************************************************/
+
+public class ContractionHierarchy<E>
+{
+    // The largest amount of vertices a witness search settles
+    public static final int WITNESS_SETTLE_LIMIT = 500;
+
+    // The largest amount of vertices a witness search settles when it only
+    // estimates the shortcuts, in order to decide the order of contraction
+    public static final int ESTIMATE_SETTLE_LIMIT = 50;
+
+    // The graph the hierarchy was built from
+    private final FrozenGraph<E> graph;
+
+    // The position of every vertex in the order of contraction
+    final int[] rank;
+
+    // The edges, including shortcuts, leading to vertices of higher rank. A shortcut
+    // is as long as the path it replaces, which may not fit in an int, so the weights
+    // are longs.
+    final int[] upFirstEdge, upEdgeTarget;
+    final long[] upEdgeWeight;
+
+    // The edges, including shortcuts, coming from vertices of higher rank, reversed
+    final int[] downFirstEdge, downEdgeTarget;
+    final long[] downEdgeWeight;
+
+    // The search spaces of the upward and the downward search of a query, reused between queries
+    private final SearchSpace forward, backward;
+
+    // Builds the hierarchy of the given graph
+    public ContractionHierarchy (FrozenGraph<E> graph) throws IllegalArgumentException
+    {
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+
+        this.graph = graph;
+        Contractor contractor = new Contractor(graph);
+        contractor.contractAll ();
+        rank = contractor.rank;
+
+        int[][] up = contractor.toArrays (contractor.upTarget, contractor.upCount);
+        upFirstEdge = up[0];
+        upEdgeTarget = up[1];
+        upEdgeWeight = contractor.toWeights (contractor.upWeight, contractor.upCount, upFirstEdge);
+
+        int[][] down = contractor.toArrays (contractor.downTarget, contractor.downCount);
+        downFirstEdge = down[0];
+        downEdgeTarget = down[1];
+        downEdgeWeight = contractor.toWeights (contractor.downWeight, contractor.downCount, downFirstEdge);
+        forward = new SearchSpace(graph.size());
+        backward = new SearchSpace(graph.size());
+    }
+
+    ContractionHierarchy (FrozenGraph<E> graph, int[] rank,
+                          int[] upFirstEdge, int[] upEdgeTarget, long[] upEdgeWeight,
+                          int[] downFirstEdge, int[] downEdgeTarget, long[] downEdgeWeight)
+    {
+        this.graph = graph;
+        this.rank = rank;
+        this.upFirstEdge = upFirstEdge;
+        this.upEdgeTarget = upEdgeTarget;
+        this.upEdgeWeight = upEdgeWeight;
+        this.downFirstEdge = downFirstEdge;
+        this.downEdgeTarget = downEdgeTarget;
+        this.downEdgeWeight = downEdgeWeight;
+        forward = new SearchSpace(graph.size());
+        backward = new SearchSpace(graph.size());
+    }
+
+    // Returns the graph the hierarchy was built from
+    public FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Returns the amount of shortcuts added by the contraction
+    public int shortcutCount ()
+    {
+        return upEdgeTarget.length + downEdgeTarget.length - graph.edgeCount();
+    }
+
+    // Returns the distance between the given vertices, or ShortestPathTree.INFINITY
+    public long distance (E source, E target) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+
+        upwardSearch (forward, sourceIndex, upFirstEdge, upEdgeTarget, upEdgeWeight);
+        upwardSearch (backward, targetIndex, downFirstEdge, downEdgeTarget, downEdgeWeight);
+
+        long distance = ShortestPathTree.INFINITY;
+        for (int index = 0; index < forward.reachedCount; index++)
+        {
+            int v = forward.reached[index];
+            if (backward.distance[v] != ShortestPathTree.INFINITY &&
+                DijkstraEngine.saturatedAdd (forward.distance[v], backward.distance[v]) < distance)
+                distance = DijkstraEngine.saturatedAdd (forward.distance[v], backward.distance[v]);
+        }
+
+        return distance;
+    }
+
+    // Returns the distances from every given source to every given target, computed
+    // in parallel on as many threads as there are processors
+    public DistanceTable<E> distanceTable (Collection<E> sources, Collection<E> targets) throws IllegalArgumentException
+    {
+        return this.distanceTable (sources, targets, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Returns the distances from every given source to every given target,
+    // computed in parallel on the given amount of threads
+    public DistanceTable<E> distanceTable (Collection<E> sources, Collection<E> targets, int threads)
+        throws IllegalArgumentException
+    {
+        List<E> sourceVertices = new ArrayList<E>(sources);
+        List<E> targetVertices = new ArrayList<E>(targets);
+        final int[] sourceIndices = new int[sourceVertices.size()];
+        final int[] targetIndices = new int[targetVertices.size()];
+        for (int index = 0; index < sourceIndices.length; index++)
+            sourceIndices[index] = graph.checkedIndexOf(sourceVertices.get(index));
+        for (int index = 0; index < targetIndices.length; index++)
+            targetIndices[index] = graph.checkedIndexOf(targetVertices.get(index));
+
+        final int columns = targetIndices.length;
+        final long[] distances = new long[sourceIndices.length * columns];
+        threads = Math.max(1, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            // Backward searches from the targets, every thread collects its own bucket entries
+            final AtomicInteger nextTarget = new AtomicInteger();
+            List<Future<BucketEntries>> backward = new ArrayList<Future<BucketEntries>>();
+            for (int thread = 0; thread < threads; thread++)
+            {
+                backward.add(executor.submit(new Callable<BucketEntries>()
+                {
+                    public BucketEntries call ()
+                    {
+                        SearchSpace search = new SearchSpace(graph.size());
+                        BucketEntries entries = new BucketEntries();
+                        for (int column = nextTarget.getAndIncrement(); column < columns;
+                             column = nextTarget.getAndIncrement())
+                        {
+                            upwardSearch (search, targetIndices[column], downFirstEdge, downEdgeTarget, downEdgeWeight);
+                            for (int index = 0; index < search.reachedCount; index++)
+                            {
+                                int v = search.reached[index];
+                                entries.add (v, column, search.distance[v]);
+                            }
+                        }
+                        return entries;
+                    }
+                }));
+            }
+
+            // Sort the entries into one bucket per vertex
+            final int[] bucketStart = new int[graph.size() + 1];
+            List<BucketEntries> collected = new ArrayList<BucketEntries>();
+            for (Future<BucketEntries> future : backward)
+            {
+                BucketEntries entries = Tasks.await(future, "computing the distance table");
+                collected.add(entries);
+                for (int index = 0; index < entries.size; index++)
+                    bucketStart[entries.vertex[index] + 1]++;
+            }
+            for (int v = 0; v < graph.size(); v++)
+                bucketStart[v + 1] += bucketStart[v];
+
+            final int[] bucketColumn = new int[bucketStart[graph.size()]];
+            final long[] bucketDistance = new long[bucketColumn.length];
+            int[] next = Arrays.copyOf(bucketStart, graph.size());
+            for (BucketEntries entries : collected)
+            {
+                for (int index = 0; index < entries.size; index++)
+                {
+                    int position = next[entries.vertex[index]]++;
+                    bucketColumn[position] = entries.column[index];
+                    bucketDistance[position] = entries.distance[index];
+                }
+            }
+
+            // Forward searches from the sources, every thread fills whole rows of the table
+            final AtomicInteger nextSource = new AtomicInteger();
+            List<Future<Object>> forward = new ArrayList<Future<Object>>();
+            for (int thread = 0; thread < threads; thread++)
+            {
+                forward.add(executor.submit(new Callable<Object>()
+                {
+                    public Object call ()
+                    {
+                        SearchSpace search = new SearchSpace(graph.size());
+                        for (int row = nextSource.getAndIncrement(); row < sourceIndices.length;
+                             row = nextSource.getAndIncrement())
+                        {
+                            int offset = row * columns;
+                            Arrays.fill(distances, offset, offset + columns, ShortestPathTree.INFINITY);
+                            upwardSearch (search, sourceIndices[row], upFirstEdge, upEdgeTarget, upEdgeWeight);
+                            for (int index = 0; index < search.reachedCount; index++)
+                            {
+                                int v = search.reached[index];
+                                long d = search.distance[v];
+                                for (int entry = bucketStart[v]; entry < bucketStart[v + 1]; entry++)
+                                {
+                                    long distance = DijkstraEngine.saturatedAdd (d, bucketDistance[entry]);
+                                    if (distance < distances[offset + bucketColumn[entry]])
+                                        distances[offset + bucketColumn[entry]] = distance;
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Object> future : forward)
+                Tasks.await(future, "computing the distance table");
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        return new DistanceTable<E>(sourceVertices, targetVertices, distances);
+    }
+
+    // The distances a backward search left at the vertices it settled
+    private static class BucketEntries
+    {
+        int[] vertex = new int[64];
+        int[] column = new int[64];
+        long[] distance = new long[64];
+        int size = 0;
+
+        // Adds the distance from the vertex to the target of the given column
+        void add (int v, int c, long d)
+        {
+            if (size == vertex.length)
+            {
+                vertex = Arrays.copyOf(vertex, 2 * size);
+                column = Arrays.copyOf(column, 2 * size);
+                distance = Arrays.copyOf(distance, 2 * size);
+            }
+            vertex[size] = v;
+            column[size] = c;
+            distance[size] = d;
+            size++;
+        }
+    }
+
+    // Settles every vertex reachable from the given source over the given edges, in the
+    // given search space. The search runs until the queue is empty, so every vertex it
+    // reached is settled and the reached vertices of the search space are the settled ones.
+    private static void upwardSearch (SearchSpace search, int source,
+                                      int[] firstEdge, int[] edgeTarget, long[] edgeWeight)
+    {
+        search.reset();
+        search.reach(source, 0, -1);
+        while (!search.isEmpty())
+        {
+            int v = search.settle();
+            long d = search.distance[v];
+            for (int edge = firstEdge[v]; edge < firstEdge[v + 1]; edge++)
+                search.reach(edgeTarget[edge], DijkstraEngine.saturatedAdd (d, edgeWeight[edge]), v);
+        }
+    }
+
+    // The state of the graph while it is being contracted
+    private static class Contractor
+    {
+        // The edges between the vertices that are not yet contracted
+        final int[][] outTarget, inTarget;
+        final long[][] outWeight, inWeight;
+        final int[] outCount, inCount;
+
+        // The edges leading upwards and coming from above, recorded at contraction
+        final int[][] upTarget, downTarget;
+        final long[][] upWeight, downWeight;
+        final int[] upCount, downCount;
+
+        final int[] rank;
+        final boolean[] contracted;
+
+        // The amount of contracted neighbours of every vertex
+        final int[] deletedNeighbours;
+
+        // The search space of the witness searches
+        final SearchSpace witness;
+
+        Contractor (FrozenGraph<?> graph)
+        {
+            int n = graph.size();
+            outTarget = new int[n][];
+            outWeight = new long[n][];
+            inTarget = new int[n][];
+            inWeight = new long[n][];
+            outCount = new int[n];
+            inCount = new int[n];
+            upTarget = new int[n][];
+            upWeight = new long[n][];
+            downTarget = new int[n][];
+            downWeight = new long[n][];
+            upCount = new int[n];
+            downCount = new int[n];
+            rank = new int[n];
+            contracted = new boolean[n];
+            deletedNeighbours = new int[n];
+            witness = new SearchSpace(n);
+
+            for (int v = 0; v < n; v++)
+            {
+                outTarget[v] = new int[4];
+                outWeight[v] = new long[4];
+                inTarget[v] = new int[4];
+                inWeight[v] = new long[4];
+            }
+            for (int v = 0; v < n; v++)
+                for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+                    this.addEdge (v, graph.edgeTarget(edge), graph.edgeWeight(edge));
+        }
+
+        // Adds an edge between the given vertices, or lowers the weight of the existing one
+        void addEdge (int from, int to, long weight)
+        {
+            if (from == to)
+                return;
+
+            int index = this.find (outTarget[from], outCount[from], to);
+            if (index != -1)
+            {
+                if (weight < outWeight[from][index])
+                {
+                    outWeight[from][index] = weight;
+                    inWeight[to][this.find (inTarget[to], inCount[to], from)] = weight;
+                }
+                return;
+            }
+
+            outCount[from] = this.append (outTarget, outWeight, from, outCount[from], to, weight);
+            inCount[to] = this.append (inTarget, inWeight, to, inCount[to], from, weight);
+        }
+
+        // Returns the position of the given value among the first count values, or -1
+        int find (int[] values, int count, int value)
+        {
+            for (int index = 0; index < count; index++)
+                if (values[index] == value)
+                    return index;
+
+            return -1;
+        }
+
+        // Appends a neighbour to the given lists of the given vertex and returns the new count
+        int append (int[][] targets, long[][] weights, int v, int count, int target, long weight)
+        {
+            if (count == targets[v].length)
+            {
+                targets[v] = Arrays.copyOf(targets[v], 2 * count);
+                weights[v] = Arrays.copyOf(weights[v], 2 * count);
+            }
+            targets[v][count] = target;
+            weights[v][count] = weight;
+            return count + 1;
+        }
+
+        // Removes the given neighbour from the given lists and returns the new count
+        int remove (int[] targets, long[] weights, int count, int target)
+        {
+            int index = this.find (targets, count, target);
+            if (index == -1)
+                return count;
+            targets[index] = targets[count - 1];
+            weights[index] = weights[count - 1];
+            return count - 1;
+        }
+
+        // Runs a search from the given vertex that avoids the given vertex and stops at
+        // the given distance or settle limit, leaving the distances in the witness search space
+        void witnessSearch (int source, int avoid, long limit, int settleLimit)
+        {
+            witness.reset();
+            witness.reach(source, 0, -1);
+            int settled = 0;
+            while (!witness.isEmpty() && settled < settleLimit)
+            {
+                int v = witness.settle();
+                settled++;
+                long d = witness.distance[v];
+                if (d > limit)
+                    break;
+                for (int index = 0; index < outCount[v]; index++)
+                {
+                    int target = outTarget[v][index];
+                    if (target == avoid)
+                        continue;
+                    witness.reach(target, d + outWeight[v][index], v);
+                }
+            }
+        }
+
+        // Returns the amount of shortcuts contracting the given vertex needs,
+        // adding them to the graph if asked to
+        int contract (int v, boolean addShortcuts)
+        {
+            long maxOut = 0;
+            for (int index = 0; index < outCount[v]; index++)
+                maxOut = Math.max(maxOut, outWeight[v][index]);
+
+            // Copy the lists, since adding shortcuts may change them
+            int[] ins = Arrays.copyOf(inTarget[v], inCount[v]);
+            long[] inWeights = Arrays.copyOf(inWeight[v], inCount[v]);
+            int[] outs = Arrays.copyOf(outTarget[v], outCount[v]);
+            long[] outWeights = Arrays.copyOf(outWeight[v], outCount[v]);
+
+            int shortcuts = 0;
+            for (int i = 0; i < ins.length; i++)
+            {
+                this.witnessSearch (ins[i], v, inWeights[i] + maxOut,
+                                    addShortcuts ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+                for (int o = 0; o < outs.length; o++)
+                {
+                    if (outs[o] == ins[i])
+                        continue;
+                    long viaV = inWeights[i] + outWeights[o];
+                    if (witness.distance[outs[o]] > viaV)
+                    {
+                        shortcuts++;
+                        if (addShortcuts)
+                            this.addEdge (ins[i], outs[o], viaV);
+                    }
+                }
+            }
+
+            return shortcuts;
+        }
+
+        // Returns the priority of contracting the given vertex, lower is earlier
+        long priority (int v)
+        {
+            return this.contract (v, false) - outCount[v] - inCount[v] + deletedNeighbours[v];
+        }
+
+        // Contracts all vertices, least important first
+        void contractAll ()
+        {
+            int n = rank.length;
+            IndexedBinaryHeap order = new IndexedBinaryHeap(n);
+            long[] priorities = new long[n];
+            for (int v = 0; v < n; v++)
+            {
+                priorities[v] = this.priority (v);
+                order.update(v, priorities[v] + n);
+            }
+
+            int position = 0;
+            while (!order.isEmpty())
+            {
+                int v = order.extractMin();
+
+                // Priorities may be outdated, so check before contracting
+                long current = this.priority (v);
+                if (current > priorities[v] && !order.isEmpty())
+                {
+                    priorities[v] = current;
+                    order.update(v, current + n);
+                    continue;
+                }
+
+                this.contract (v, true);
+                rank[v] = position++;
+                contracted[v] = true;
+
+                // Record the remaining edges of the vertex, which all lead to higher ranks
+                upTarget[v] = Arrays.copyOf(outTarget[v], outCount[v]);
+                upWeight[v] = Arrays.copyOf(outWeight[v], outCount[v]);
+                upCount[v] = outCount[v];
+                downTarget[v] = Arrays.copyOf(inTarget[v], inCount[v]);
+                downWeight[v] = Arrays.copyOf(inWeight[v], inCount[v]);
+                downCount[v] = inCount[v];
+
+                // Remove the vertex from the graph and update the priorities of its neighbours
+                for (int index = 0; index < outCount[v]; index++)
+                {
+                    int x = outTarget[v][index];
+                    inCount[x] = this.remove (inTarget[x], inWeight[x], inCount[x], v);
+                    deletedNeighbours[x]++;
+                }
+                for (int index = 0; index < inCount[v]; index++)
+                {
+                    int u = inTarget[v][index];
+                    outCount[u] = this.remove (outTarget[u], outWeight[u], outCount[u], v);
+                    deletedNeighbours[u]++;
+                }
+                outCount[v] = 0;
+                inCount[v] = 0;
+                outTarget[v] = inTarget[v] = null;
+                outWeight[v] = inWeight[v] = null;
+
+                for (int index = 0; index < upCount[v]; index++)
+                    this.updatePriority (order, priorities, upTarget[v][index]);
+                for (int index = 0; index < downCount[v]; index++)
+                    this.updatePriority (order, priorities, downTarget[v][index]);
+            }
+        }
+
+        // Recomputes the priority of the given vertex, which must not be contracted yet
+        void updatePriority (IndexedBinaryHeap order, long[] priorities, int v)
+        {
+            priorities[v] = this.priority (v);
+            order.update(v, priorities[v] + rank.length);
+        }
+
+        // Returns the recorded lists as flat first edge and target arrays
+        int[][] toArrays (int[][] targets, int[] counts)
+        {
+            int n = counts.length;
+            int[] firstEdge = new int[n + 1];
+            for (int v = 0; v < n; v++)
+                firstEdge[v + 1] = firstEdge[v] + counts[v];
+
+            int[] edgeTarget = new int[firstEdge[n]];
+            for (int v = 0; v < n; v++)
+                System.arraycopy(targets[v], 0, edgeTarget, firstEdge[v], counts[v]);
+
+            return new int[][] {firstEdge, edgeTarget};
+        }
+
+        // Returns the recorded weights as a flat array, in the order of the given first edges
+        long[] toWeights (long[][] weights, int[] counts, int[] firstEdge)
+        {
+            long[] edgeWeight = new long[firstEdge[counts.length]];
+            for (int v = 0; v < counts.length; v++)
+                System.arraycopy(weights[v], 0, edgeWeight, firstEdge[v], counts[v]);
+
+            return edgeWeight;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing Dijkstras algorithm on a frozen graph. When the *
+ * edge weights are small the vertices are queued in buckets instead of a *
+ * binary heap. An engine reuses its search space between searches, and  *
+ * is therefore not safe to use from several threads at once. Use one     *
+ * engine per thread. An engine can also search a compressed graph,       *
+ * decoding the edges as it goes.                                         *
+ **************************************************************************/
+
+public class DijkstraEngine<E>
+{
+    // The kinds of priority queues the engine can use
+    public enum Queue { AUTOMATIC, BINARY_HEAP, BUCKETS }
+
+    // The largest edge weight for which buckets are chosen automatically
+    public static final int BUCKET_THRESHOLD = 4096;
+
+    // The graph that is searched, without edges if the compressed graph is searched
+    private final FrozenGraph<E> graph;
+
+    // The compressed graph that is searched, or null
+    private final CompressedGraph<E> compressed;
+
+    // Checks if the queue is a bucket queue
+    private final boolean usesBuckets;
+
+    // The queue, distances and predecessors of the last search
+    private final SearchSpace space;
+
+    // The vertices and edges the current search may not use, or null
+    private boolean[] blockedVertices, blockedEdges;
+
+    public DijkstraEngine (FrozenGraph<E> graph) throws IllegalArgumentException
+    {
+        this(graph, Queue.AUTOMATIC);
+    }
+
+    public DijkstraEngine (FrozenGraph<E> graph, Queue queue) throws IllegalArgumentException
+    {
+        this(graph, null, graph.minEdgeWeight(), graph.maxEdgeWeight(), queue);
+    }
+
+    public DijkstraEngine (CompressedGraph<E> graph) throws IllegalArgumentException
+    {
+        this(graph, Queue.AUTOMATIC);
+    }
+
+    public DijkstraEngine (CompressedGraph<E> graph, Queue queue) throws IllegalArgumentException
+    {
+        this(graph.vertices, graph, graph.minEdgeWeight(), graph.maxEdgeWeight(), queue);
+    }
+
+    private DijkstraEngine (FrozenGraph<E> graph, CompressedGraph<E> compressed,
+                            int minEdgeWeight, int maxEdgeWeight, Queue queue) throws IllegalArgumentException
+    {
+        if (minEdgeWeight < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + minEdgeWeight + " found!");
+
+        this.graph = graph;
+        this.compressed = compressed;
+        if (queue == Queue.AUTOMATIC)
+            queue = maxEdgeWeight <= BUCKET_THRESHOLD ? Queue.BUCKETS : Queue.BINARY_HEAP;
+
+        usesBuckets = queue == Queue.BUCKETS;
+        if (usesBuckets)
+            space = new SearchSpace(new BucketQueue(graph.size(), maxEdgeWeight), graph.size());
+        else
+            space = new SearchSpace(graph.size());
+    }
+
+    // Checks if the engine queues vertices in buckets instead of a binary heap
+    public boolean usesBuckets ()
+    {
+        return usesBuckets;
+    }
+
+    // Returns the graph that is searched, or only its vertices if the engine searches a compressed graph
+    public FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Returns the sum of the given distance and edge weight, or
+    // ShortestPathTree.INFINITY if the sum does not fit in a long
+    static long saturatedAdd (long distance, long edgeWeight)
+    {
+        long sum = distance + edgeWeight;
+        return sum < 0 ? ShortestPathTree.INFINITY : sum;
+    }
+
+    // Returns the shortest paths from the given vertex to all the other vertices
+    public ShortestPathTree<E> shortestPaths (E vertex) throws IllegalArgumentException
+    {
+        int source = graph.checkedIndexOf(vertex);
+        this.search (source, -1, ShortestPathTree.INFINITY, null);
+        return space.toTree(graph, source);
+    }
+
+    // Returns the shortest paths from the given vertex to all the vertices at most
+    // the given distance away, the other vertices are reported as unreachable
+    public ShortestPathTree<E> withinDistance (E vertex, long limit) throws IllegalArgumentException
+    {
+        int source = graph.checkedIndexOf(vertex);
+        this.search (source, -1, limit, null);
+        return space.toTree(graph, source);
+    }
+
+    // Passes every vertex at most the given budget away from the given vertex to the
+    // consumer, together with its distance, in the order the vertices are settled.
+    // Returns the amount of vertices passed. Only the vertices that are reached are
+    // touched, so the time taken depends on the size of the answer, not of the graph.
+    public int reachableWithin (E vertex, long budget, DistanceConsumer<E> consumer) throws IllegalArgumentException
+    {
+        return this.search (graph.checkedIndexOf(vertex), -1, budget, consumer);
+    }
+
+    // Returns the shortest path between the given vertices, or null if there is none
+    public Path<E> shortestPath (E source, E target) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+        this.search (sourceIndex, targetIndex, ShortestPathTree.INFINITY, null);
+        if (space.distance[targetIndex] == ShortestPathTree.INFINITY)
+            return null;
+
+        return space.pathTo(graph, targetIndex, space.distance[targetIndex]);
+    }
+
+    // Returns the indices of the vertices on the shortest path between the given vertex
+    // indices that avoids the blocked vertices and edges, or null if there is none. For
+    // a compressed graph the edges of every vertex are numbered in the order of their neighbours.
+    int[] shortestPath (int source, int target, boolean[] blockedVertices, boolean[] blockedEdges)
+    {
+        this.blockedVertices = blockedVertices;
+        this.blockedEdges = blockedEdges;
+        try
+        {
+            this.search (source, target, ShortestPathTree.INFINITY, null);
+        }
+        finally
+        {
+            this.blockedVertices = null;
+            this.blockedEdges = null;
+        }
+        if (space.distance[target] == ShortestPathTree.INFINITY)
+            return null;
+
+        int[] predecessor = space.predecessor;
+        int length = 1;
+        for (int v = target; v != source; v = predecessor[v])
+            length++;
+
+        int[] path = new int[length];
+        for (int v = target; length > 0; v = predecessor[v])
+            path[--length] = v;
+
+        return path;
+    }
+
+    // Returns the distance to the given vertex index found by the last search
+    long distanceTo (int vertex)
+    {
+        return space.distance[vertex];
+    }
+
+    // Searches from the source until the target is settled, or until every vertex
+    // at most the given distance away is settled if the target is -1. Every settled
+    // vertex is passed to the consumer, unless it is null. Returns the amount of
+    // settled vertices.
+    // Since the edges of every vertex are sorted ascending by weight, the scan of
+    // the edges stops at the first edge leading beyond the limit, or beyond the
+    // distance to the target found so far. The edges of a compressed graph are not
+    // sorted by weight, so they are all looked at.
+    private int search (int source, int target, long limit, DistanceConsumer<E> consumer)
+    {
+        space.reset();
+
+        long[] distance = space.distance;
+        int[] firstEdge = graph.firstEdge;
+        int[] edgeTarget = graph.edgeTarget;
+        int[] edgeWeight = graph.edgeWeight;
+        boolean[] blockedVertices = this.blockedVertices;
+        boolean[] blockedEdges = this.blockedEdges;
+
+        if (limit >= 0)
+            space.reach(source, 0, -1);
+
+        int settled = 0;
+        while (!space.isEmpty())
+        {
+            int v = space.settle();
+            long d = distance[v];
+            settled++;
+            if (consumer != null)
+                consumer.accept(graph.vertex(v), d);
+            if (v == target)
+                break;
+
+            // Paths that are not shorter than the one to the target can be skipped
+            long bound = limit;
+            if (target != -1 && distance[target] - 1 < bound)
+                bound = distance[target] - 1;
+
+            if (compressed != null)
+            {
+                this.relaxCompressed (v, d, bound);
+                continue;
+            }
+
+            // Relax the edges of the settled vertex
+            for (int edge = firstEdge[v]; edge < firstEdge[v + 1]; edge++)
+            {
+                long newDistance = saturatedAdd (d, edgeWeight[edge]);
+                if (newDistance > bound)
+                    break;
+                int neighbour = edgeTarget[edge];
+                if (blockedEdges != null && (blockedEdges[edge] || blockedVertices[neighbour]))
+                    continue;
+                space.reach(neighbour, newDistance, v);
+            }
+        }
+
+        return settled;
+    }
+
+    // Relaxes the edges of the given settled vertex of the compressed graph. The
+    // neighbours are sorted by index rather than by weight, so every edge is looked at.
+    private void relaxCompressed (int v, long d, long bound)
+    {
+        byte[] targets = compressed.targets;
+        int end = compressed.firstByte[v + 1];
+        int edge = compressed.firstEdge[v];
+        int neighbour = v;
+        for (int position = compressed.firstByte[v]; position < end; edge++)
+        {
+            // Read the difference to the previous neighbour, seven bits per byte
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = targets[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+
+            // The difference of the first neighbour to the vertex itself is zigzag encoded
+            if (edge == compressed.firstEdge[v])
+                neighbour = v + ((delta >>> 1) ^ -(delta & 1));
+            else
+                neighbour += delta;
+
+            long newDistance = saturatedAdd (d, compressed.weight(edge));
+            if (newDistance > bound)
+                continue;
+            if (blockedEdges != null && (blockedEdges[edge] || blockedVertices[neighbour]))
+                continue;
+            space.reach(neighbour, newDistance, v);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The interface representing a receiver of vertices and their distance,  *
+ * as they are settled by a search.                                       *
+ **************************************************************************/
+
+public interface DistanceConsumer<E>
+{
+    // Receives a settled vertex and its distance from the source
+    void accept (E vertex, long distance);
+}
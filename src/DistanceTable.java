@@ -0,0 +1,64 @@
+import java.util.List;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing the distances from a list of sources to a list *
+ * of targets, stored row by row in a single array.                       *
+ **************************************************************************/
+
+public class DistanceTable<E>
+{
+    // The sources, one for every row
+    private final List<E> sources;
+
+    // The targets, one for every column
+    private final List<E> targets;
+
+    // The distances, row by row
+    private final long[] distances;
+
+    DistanceTable (List<E> sources, List<E> targets, long[] distances)
+    {
+        this.sources = sources;
+        this.targets = targets;
+        this.distances = distances;
+    }
+
+    // Returns the amount of rows, which is the amount of sources
+    public int rows ()
+    {
+        return sources.size();
+    }
+
+    // Returns the amount of columns, which is the amount of targets
+    public int columns ()
+    {
+        return targets.size();
+    }
+
+    // Returns the source of the given row
+    public E source (int row)
+    {
+        return sources.get(row);
+    }
+
+    // Returns the target of the given column
+    public E target (int column)
+    {
+        return targets.get(column);
+    }
+
+    // Returns the distance from the source of the given row to the
+    // target of the given column, or ShortestPathTree.INFINITY
+    public long distance (int row, int column)
+    {
+        return distances[row * targets.size() + column];
+    }
+
+    // Returns the distances row by row. The array is not a copy.
+    public long[] matrix ()
+    {
+        return distances;
+    }
+}
@@ -0,0 +1,76 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a reusable cursor over the edges leaving a      *
+ * vertex of a WDGraph, ascending by edge weight. A cursor is moved to a  *
+ * vertex with reset, and then to every edge in turn with next. Moving    *
+ * the cursor allocates nothing, so one cursor can serve a whole search.  *
+ * The graph must not be changed while a cursor walks its edges.          *
+ **************************************************************************/
+
+public class EdgeCursor<E>
+{
+    // The graph whose edges are walked
+    private final WDGraph<E> graph;
+
+    // The edges of the graph
+    private final IntGraph edges;
+
+    // The current edge, or null before the first call to next
+    private IntGraph.Node current = null;
+
+    // The edge next returns next, or null if there are no more
+    private IntGraph.Node pending = null;
+
+    EdgeCursor (WDGraph<E> graph, IntGraph edges)
+    {
+        this.graph = graph;
+        this.edges = edges;
+    }
+
+    // Moves the cursor to just before the first edge of the given vertex
+    public void reset (E vertex) throws IllegalArgumentException
+    {
+        int index = graph.indexOf(vertex);
+        if (index < 0)
+            throw new IllegalArgumentException (vertex + " was not found!");
+
+        this.resetAt (index);
+    }
+
+    // Moves the cursor to just before the first edge of the vertex at the given index
+    public void resetAt (int index) throws IllegalArgumentException
+    {
+        current = null;
+        pending = edges.firstNode(index);
+    }
+
+    // Moves the cursor to the next edge, returns false if there is none
+    public boolean next ()
+    {
+        current = pending;
+        if (current == null)
+            return false;
+
+        pending = current.nextNode;
+        return true;
+    }
+
+    // Returns the vertex the current edge leads to
+    public E target ()
+    {
+        return graph.vertexAt(current.neighbourIndex);
+    }
+
+    // Returns the index of the vertex the current edge leads to
+    public int targetIndex ()
+    {
+        return current.neighbourIndex;
+    }
+
+    // Returns the weight of the current edge
+    public int weight ()
+    {
+        return current.edgeWeight;
+    }
+}
@@ -0,0 +1,229 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing an immutable snapshot of a weighted directed    *
+ * graph, with the edges of every vertex stored next to each other in     *
+ * flat arrays. This is the graph representation the engines run on.      *
+ **************************************************************************/
+
+public class FrozenGraph<E>
+{
+    // The vertices of the graph
+    final E[] vertices;
+
+    // Index of the first edge of every vertex, the edges of vertex v are found
+    // between firstEdge[v] and firstEdge[v + 1], sorted ascending by weight
+    final int[] firstEdge;
+
+    // Index of the vertex every edge leads to
+    final int[] edgeTarget;
+
+    // Weight of every edge
+    final int[] edgeWeight;
+
+    // Smallest and largest edge weight of the graph
+    final int minEdgeWeight, maxEdgeWeight;
+
+    // Maps every vertex to its index
+    private final HashMap<E, Integer> indices;
+
+    FrozenGraph (E[] vertices, int[] firstEdge, int[] edgeTarget, int[] edgeWeight)
+    {
+        this.vertices = vertices;
+        this.firstEdge = firstEdge;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+
+        int min = 0, max = 0;
+        for (int edge = 0; edge < edgeWeight.length; edge++)
+        {
+            if (edge == 0 || edgeWeight[edge] < min)
+                min = edgeWeight[edge];
+            if (edge == 0 || edgeWeight[edge] > max)
+                max = edgeWeight[edge];
+        }
+        minEdgeWeight = min;
+        maxEdgeWeight = max;
+
+        indices = new HashMap<E, Integer>(2 * vertices.length);
+        // Iterate backwards so that the first of two equal vertices wins, like in WDGraph
+        for (int index = vertices.length - 1; index >= 0; index--)
+            indices.put(vertices[index], index);
+    }
+
+    // Creates a graph without edges that shares the given vertices and their index
+    private FrozenGraph (E[] vertices, HashMap<E, Integer> indices)
+    {
+        this.vertices = vertices;
+        this.indices = indices;
+        firstEdge = new int[vertices.length + 1];
+        edgeTarget = new int[0];
+        edgeWeight = edgeTarget;
+        minEdgeWeight = 0;
+        maxEdgeWeight = 0;
+    }
+
+    // Returns a graph with the vertices of this graph and no edges. The vertices and
+    // the map from vertices to indices are shared, not copied.
+    FrozenGraph<E> withoutEdges ()
+    {
+        return new FrozenGraph<E>(vertices, indices);
+    }
+
+    // Returns the amount of vertices in the graph
+    public int size ()
+    {
+        return vertices.length;
+    }
+
+    // Returns the amount of edges in the graph
+    public int edgeCount ()
+    {
+        return edgeTarget.length;
+    }
+
+    // Returns the index of the given vertex, or -1 if the vertex is not found
+    public int indexOf (E vertex)
+    {
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
+
+    // Returns the index of the given vertex, which must be in the graph
+    int checkedIndexOf (E vertex) throws IllegalArgumentException
+    {
+        Integer index = indices.get(vertex);
+        if (index == null)
+            throw new IllegalArgumentException (vertex + " was not found!");
+        return index;
+    }
+
+    // Returns the vertex at the given index
+    public E vertex (int index)
+    {
+        return vertices[index];
+    }
+
+    // Returns the index of the first edge of the given vertex
+    public int edgeStart (int vertex)
+    {
+        return firstEdge[vertex];
+    }
+
+    // Returns the index after the last edge of the given vertex
+    public int edgeEnd (int vertex)
+    {
+        return firstEdge[vertex + 1];
+    }
+
+    // Returns the index of the vertex the given edge leads to
+    public int edgeTarget (int edge)
+    {
+        return edgeTarget[edge];
+    }
+
+    // Returns the weight of the given edge
+    public int edgeWeight (int edge)
+    {
+        return edgeWeight[edge];
+    }
+
+    // Returns the index of the edge between the given vertex indices, or -1 if there is none
+    public int edgeIndex (int from, int to)
+    {
+        for (int edge = firstEdge[from]; edge < firstEdge[from + 1]; edge++)
+            if (edgeTarget[edge] == to)
+                return edge;
+
+        return -1;
+    }
+
+    // Returns the graph with the direction of every edge reversed
+    public FrozenGraph<E> reverse ()
+    {
+        int[] reverseFirstEdge = new int[vertices.length + 1];
+        for (int edge = 0; edge < edgeTarget.length; edge++)
+            reverseFirstEdge[edgeTarget[edge] + 1]++;
+        for (int v = 0; v < vertices.length; v++)
+            reverseFirstEdge[v + 1] += reverseFirstEdge[v];
+
+        // Visit the edges ascending by weight, so that they end up sorted in the reversed graph
+        long[] order = new long[edgeTarget.length];
+        for (int edge = 0; edge < edgeTarget.length; edge++)
+            order[edge] = ((long) edgeWeight[edge] << 32) | edge;
+        Arrays.sort(order);
+
+        int[] edgeSource = new int[edgeTarget.length];
+        for (int v = 0; v < vertices.length; v++)
+            for (int edge = firstEdge[v]; edge < firstEdge[v + 1]; edge++)
+                edgeSource[edge] = v;
+
+        int[] next = Arrays.copyOf(reverseFirstEdge, vertices.length);
+        int[] reverseEdgeTarget = new int[edgeTarget.length];
+        int[] reverseEdgeWeight = new int[edgeTarget.length];
+        for (int index = 0; index < order.length; index++)
+        {
+            int edge = (int) order[index];
+            int position = next[edgeTarget[edge]]++;
+            reverseEdgeTarget[position] = edgeSource[edge];
+            reverseEdgeWeight[position] = edgeWeight[edge];
+        }
+
+        return new FrozenGraph<E>(vertices, reverseFirstEdge, reverseEdgeTarget, reverseEdgeWeight);
+    }
+
+    // Returns the same graph with its vertices renumbered, where order holds for every
+    // new index the old index of the vertex placed there. The vertices themselves keep
+    // working with indexOf, only the indices of the engines change.
+    public FrozenGraph<E> reorder (int[] order) throws IllegalArgumentException
+    {
+        int n = vertices.length;
+        if (order.length != n)
+            throw new IllegalArgumentException ("Expected an order of " + n + " vertices!");
+        int[] newIndex = new int[n];
+        Arrays.fill(newIndex, -1);
+        for (int index = 0; index < n; index++)
+        {
+            if (order[index] < 0 || order[index] >= n || newIndex[order[index]] != -1)
+                throw new IllegalArgumentException ("The order is not a permutation of the vertices!");
+            newIndex[order[index]] = index;
+        }
+
+        // Copy the edges of every vertex in the same order, so they stay sorted by weight
+        E[] newVertices = Arrays.copyOf(vertices, n);
+        int[] newFirstEdge = new int[n + 1];
+        int[] newEdgeTarget = new int[edgeTarget.length];
+        int[] newEdgeWeight = new int[edgeWeight.length];
+        int position = 0;
+        for (int index = 0; index < n; index++)
+        {
+            int v = order[index];
+            newVertices[index] = vertices[v];
+            newFirstEdge[index] = position;
+            for (int edge = firstEdge[v]; edge < firstEdge[v + 1]; edge++)
+            {
+                newEdgeTarget[position] = newIndex[edgeTarget[edge]];
+                newEdgeWeight[position] = edgeWeight[edge];
+                position++;
+            }
+        }
+        newFirstEdge[n] = position;
+
+        return new FrozenGraph<E>(newVertices, newFirstEdge, newEdgeTarget, newEdgeWeight);
+    }
+
+    // Returns the smallest edge weight of the graph, or 0 if there are no edges
+    public int minEdgeWeight ()
+    {
+        return minEdgeWeight;
+    }
+
+    // Returns the largest edge weight of the graph, or 0 if there are no edges
+    public int maxEdgeWeight ()
+    {
+        return maxEdgeWeight;
+    }
+}
@@ -0,0 +1,264 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class dividing the vertices of a frozen graph into cells of about  *
+ * the same size with few edges between them. The cells are grown from   *
+ * seeds spread over the graph by breadth first search, and then improved *
+ * by label propagation: a vertex moves to the cell most of its           *
+ * neighbours are in, as long as that cell does not grow too large.       *
+ **************************************************************************/
+
+public class GraphPartition
+{
+    // How much larger than the average a cell may grow, in percent
+    public static final int IMBALANCE = 10;
+
+    // The amount of label propagation rounds
+    public static final int ROUNDS = 10;
+
+    // The cell of every vertex
+    final int[] cell;
+
+    // The amount of vertices in every cell
+    private final int[] cellSize;
+
+    // The amount of edges between different cells
+    private final int cutEdges;
+
+    // Divides the given graph into the given amount of cells
+    public GraphPartition (FrozenGraph<?> graph, int cells) throws IllegalArgumentException
+    {
+        if (cells < 1 || cells > Math.max(1, graph.size()))
+            throw new IllegalArgumentException ("Can not divide " + graph.size() + " vertices into " + cells + " cells!");
+
+        int n = graph.size();
+        FrozenGraph<?> reverse = graph.reverse();
+        int capacity = (int) (((long) n * (100 + IMBALANCE) + 100L * cells - 1) / (100L * cells));
+        cell = new int[n];
+        cellSize = new int[cells];
+        Arrays.fill(cell, -1);
+
+        // An empty graph is divided into one empty cell
+        if (n > 0)
+        {
+            this.grow (graph, reverse, this.seeds (graph, reverse, cells), capacity);
+            for (int round = 0; round < ROUNDS; round++)
+                if (!this.propagate (graph, reverse, capacity))
+                    break;
+        }
+
+        int cut = 0;
+        for (int v = 0; v < n; v++)
+            for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+                if (cell[graph.edgeTarget(edge)] != cell[v])
+                    cut++;
+        cutEdges = cut;
+    }
+
+    // Returns the amount of cells
+    public int cellCount ()
+    {
+        return cellSize.length;
+    }
+
+    // Returns the cell of the given vertex index
+    public int cellOf (int vertex)
+    {
+        return cell[vertex];
+    }
+
+    // Returns the amount of vertices in the given cell
+    public int cellSize (int c)
+    {
+        return cellSize[c];
+    }
+
+    // Returns the amount of edges between different cells
+    public int cutEdgeCount ()
+    {
+        return cutEdges;
+    }
+
+    // Returns the given amount of seeds, each one as far as possible,
+    // in edges, from the ones chosen before it
+    private int[] seeds (FrozenGraph<?> graph, FrozenGraph<?> reverse, int cells)
+    {
+        int n = graph.size();
+        int[] seeds = new int[cells];
+        int[] hops = new int[n];
+        int[] queue = new int[n];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+
+        int seed = 0;
+        for (int index = 0; index < cells; index++)
+        {
+            seeds[index] = seed;
+            hops[seed] = 0;
+
+            // Update the hops to the closest seed and find the vertex farthest from all seeds
+            int head = 0, tail = 0;
+            queue[tail++] = seed;
+            while (head < tail)
+            {
+                int v = queue[head++];
+                tail = this.visit (graph, v, hops, queue, tail);
+                tail = this.visit (reverse, v, hops, queue, tail);
+            }
+
+            int farthest = -1;
+            for (int v = 0; v < n; v++)
+                if (hops[v] != 0 && (farthest == -1 || hops[v] > hops[farthest]))
+                    farthest = v;
+            seed = farthest;
+        }
+
+        return seeds;
+    }
+
+    // Queues the neighbours of the given vertex that get closer to a seed through it
+    private int visit (FrozenGraph<?> graph, int v, int[] hops, int[] queue, int tail)
+    {
+        for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+        {
+            int neighbour = graph.edgeTarget(edge);
+            if (hops[v] + 1 < hops[neighbour])
+            {
+                hops[neighbour] = hops[v] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+        return tail;
+    }
+
+    // Grows the cells from the given seeds at the same pace until every vertex has a cell
+    private void grow (FrozenGraph<?> graph, FrozenGraph<?> reverse, int[] seeds, int capacity)
+    {
+        int n = graph.size();
+        int cells = seeds.length;
+
+        // One queue of vertices to expand from per cell
+        int[][] queues = new int[cells][];
+        int[] head = new int[cells], tail = new int[cells];
+        for (int c = 0; c < cells; c++)
+        {
+            queues[c] = new int[16];
+            cell[seeds[c]] = c;
+            cellSize[c]++;
+            queues[c][tail[c]++] = seeds[c];
+        }
+
+        boolean growing = true;
+        while (growing)
+        {
+            growing = false;
+            for (int c = 0; c < cells; c++)
+            {
+                // Every cell takes one vertex off its queue per turn
+                if (head[c] == tail[c] || cellSize[c] >= capacity)
+                    continue;
+                growing = true;
+                int v = queues[c][head[c]++];
+                for (int pass = 0; pass < 2; pass++)
+                {
+                    FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                    for (int edge = g.edgeStart(v); edge < g.edgeEnd(v) && cellSize[c] < capacity; edge++)
+                    {
+                        int neighbour = g.edgeTarget(edge);
+                        if (cell[neighbour] != -1)
+                            continue;
+                        cell[neighbour] = c;
+                        cellSize[c]++;
+                        if (tail[c] == queues[c].length)
+                            queues[c] = Arrays.copyOf(queues[c], 2 * tail[c]);
+                        queues[c][tail[c]++] = neighbour;
+                    }
+                }
+            }
+        }
+
+        // Vertices left over once the cells were full join a neighbouring cell
+        int[] queue = new int[n];
+        int queueHead = 0, queueTail = 0;
+        for (int v = 0; v < n; v++)
+            if (cell[v] != -1)
+                queue[queueTail++] = v;
+        while (queueHead < queueTail)
+        {
+            int v = queue[queueHead++];
+            for (int pass = 0; pass < 2; pass++)
+            {
+                FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                {
+                    int neighbour = g.edgeTarget(edge);
+                    if (cell[neighbour] != -1)
+                        continue;
+                    cell[neighbour] = cell[v];
+                    cellSize[cell[v]]++;
+                    queue[queueTail++] = neighbour;
+                }
+            }
+        }
+
+        // Vertices no cell could reach go to the smallest cells
+        for (int v = 0; v < n; v++)
+        {
+            if (cell[v] != -1)
+                continue;
+            int smallest = 0;
+            for (int c = 1; c < cells; c++)
+                if (cellSize[c] < cellSize[smallest])
+                    smallest = c;
+            cell[v] = smallest;
+            cellSize[smallest]++;
+        }
+    }
+
+    // Moves every vertex to the cell most of its neighbours are in, if that cell has
+    // room and the vertex is not the last one of its cell. Returns true if any vertex moved.
+    private boolean propagate (FrozenGraph<?> graph, FrozenGraph<?> reverse, int capacity)
+    {
+        int[] count = new int[cellSize.length];
+        boolean moved = false;
+        for (int v = 0; v < graph.size(); v++)
+        {
+            for (int pass = 0; pass < 2; pass++)
+            {
+                FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                    count[cell[g.edgeTarget(edge)]]++;
+            }
+
+            int best = cell[v];
+            for (int pass = 0; pass < 2; pass++)
+            {
+                FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                {
+                    int c = cell[g.edgeTarget(edge)];
+                    if (count[c] > count[best] && cellSize[c] < capacity)
+                        best = c;
+                }
+            }
+
+            if (best != cell[v] && cellSize[cell[v]] > 1)
+            {
+                cellSize[cell[v]]--;
+                cellSize[best]++;
+                cell[v] = best;
+                moved = true;
+            }
+
+            for (int pass = 0; pass < 2; pass++)
+            {
+                FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                    count[cell[g.edgeTarget(edge)]] = 0;
+            }
+        }
+
+        return moved;
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a priority queue of vertex indices, using a     *
+ * binary heap that knows the position of every vertex.                   *
+ **************************************************************************/
+
+class IndexedBinaryHeap implements VertexQueue
+{
+    // The queued vertices, ordered as a binary heap
+    private final int[] heap;
+
+    // Position of every vertex in the heap, or -1 if it is not queued
+    private final int[] position;
+
+    // Key of every vertex
+    private final long[] keys;
+
+    // The amount of queued vertices
+    private int size = 0;
+
+    public IndexedBinaryHeap (int capacity)
+    {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    public boolean isEmpty ()
+    {
+        return size == 0;
+    }
+
+    public void update (int vertex, long key)
+    {
+        keys[vertex] = key;
+        if (position[vertex] == -1)
+        {
+            heap[size] = vertex;
+            position[vertex] = size;
+            size++;
+        }
+        // The key may also have been raised, in which case the vertex moves down
+        this.siftUp (position[vertex]);
+        this.siftDown (position[vertex]);
+    }
+
+    public int extractMin ()
+    {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0)
+        {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            this.siftDown (0);
+        }
+        return min;
+    }
+
+    public void clear ()
+    {
+        for (int index = 0; index < size; index++)
+            position[heap[index]] = -1;
+        size = 0;
+    }
+
+    // Moves the vertex at the given position up until its parent has a smaller key
+    private void siftUp (int index)
+    {
+        int vertex = heap[index];
+        long key = keys[vertex];
+        while (index > 0)
+        {
+            int parent = (index - 1) >>> 1;
+            if (keys[heap[parent]] <= key)
+                break;
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = vertex;
+        position[vertex] = index;
+    }
+
+    // Moves the vertex at the given position down until its children have larger keys
+    private void siftDown (int index)
+    {
+        int vertex = heap[index];
+        long key = keys[vertex];
+        while (true)
+        {
+            int child = 2 * index + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+                child++;
+            if (key <= keys[heap[child]])
+                break;
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = vertex;
+        position[vertex] = index;
+    }
+}
@@ -0,0 +1,258 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a weighted directed graph whose vertices are    *
+ * the indices 0 to size() - 1. It holds the edges of WDGraph, which maps *
+ * its vertices to these indices, and can be used directly by code that   *
+ * works on indices, without any objects being looked up or created. The *
+ * neighbours of every vertex are kept sorted ascending by edge weight.   *
+ **************************************************************************/
+
+public class IntGraph
+{
+    static class Node
+    {
+        // Index of a neighbour
+        public int neighbourIndex;
+        // Weight of the edge
+        public int edgeWeight;
+        // Next node
+        public Node nextNode;
+
+        public Node (int neighbourIndex, int edgeWeight)
+        {
+            this.neighbourIndex = neighbourIndex;
+            this.edgeWeight = edgeWeight;
+            this.nextNode = null;
+        }
+    }
+
+    // Sequences of neighbours
+    private Node[] adjacencySequences;
+
+    // The amount of vertices
+    private int size = 0;
+
+    // Incremented every time the vertices or edges of the graph change
+    private int version = 0;
+
+    public IntGraph ()
+    {
+        this(WDGraph.DEFAULT_CAPACITY);
+    }
+
+    public IntGraph (int initialCapacity)
+    {
+        adjacencySequences = new Node[Math.max(1, initialCapacity)];
+    }
+
+    // Returns the amount of vertices in the graph
+    public int size ()
+    {
+        return size;
+    }
+
+    // Returns the version of the graph, which changes whenever the graph is modified
+    public int version ()
+    {
+        return version;
+    }
+
+    // Adds a vertex without edges and returns its index
+    public int addVertex ()
+    {
+        if (size == adjacencySequences.length)
+        {
+            Node[] newAdjacencySequences = new Node[1 + size + WDGraph.ENLARGE_VALUE * size / 100];
+            System.arraycopy(adjacencySequences, 0, newAdjacencySequences, 0, size);
+            adjacencySequences = newAdjacencySequences;
+        }
+
+        version++;
+        return size++;
+    }
+
+    // Adds an edge between the given vertices with the given weight, replacing the edge
+    // between them if there is one
+    public void addEdge (int from, int to, int edgeWeight) throws IllegalArgumentException
+    {
+        this.check (from);
+        this.check (to);
+
+        this.removeNode (from, to);
+        Node node = new Node(to, edgeWeight);
+        Node currentNode = adjacencySequences[from];
+        Node previousNode = null;
+        while (currentNode != null && currentNode.edgeWeight < edgeWeight)
+        {
+            previousNode = currentNode;
+            currentNode = currentNode.nextNode;
+        }
+
+        if (previousNode == null)
+            adjacencySequences[from] = node;
+        else
+            previousNode.nextNode = node;
+        node.nextNode = currentNode;
+        version++;
+    }
+
+    // Checks if an edge exists between the given vertices
+    public boolean hasEdge (int from, int to) throws IllegalArgumentException
+    {
+        this.check (from);
+        this.check (to);
+        return this.findNode (from, to) != null;
+    }
+
+    // Returns the weight of the edge between the given vertices, or -1 if there is none
+    public int edgeWeight (int from, int to) throws IllegalArgumentException
+    {
+        this.check (from);
+        this.check (to);
+        Node node = this.findNode (from, to);
+        return node == null ? -1 : node.edgeWeight;
+    }
+
+    // Returns the amount of edges leaving the given vertex
+    public int degree (int vertex) throws IllegalArgumentException
+    {
+        this.check (vertex);
+        int degree = 0;
+        for (Node node = adjacencySequences[vertex]; node != null; node = node.nextNode)
+            degree++;
+
+        return degree;
+    }
+
+    // Passes the index and edge weight of every neighbour of the given vertex to the
+    // consumer, ascending by edge weight
+    public void forEachNeighbour (int vertex, IntIntConsumer consumer) throws IllegalArgumentException
+    {
+        this.check (vertex);
+        for (Node node = adjacencySequences[vertex]; node != null; node = node.nextNode)
+            consumer.accept(node.neighbourIndex, node.edgeWeight);
+    }
+
+    // Removes the edge between the given vertices, if there is one
+    public void removeEdge (int from, int to) throws IllegalArgumentException
+    {
+        this.check (from);
+        this.check (to);
+        this.removeNode (from, to);
+        version++;
+    }
+
+    // Removes all the edges leaving the given vertex
+    public void removeEdges (int vertex) throws IllegalArgumentException
+    {
+        this.check (vertex);
+        adjacencySequences[vertex] = null;
+        version++;
+    }
+
+    // Removes the given vertex and all edges to and from it. The vertices
+    // after it move down one index.
+    public void removeVertex (int vertex) throws IllegalArgumentException
+    {
+        this.check (vertex);
+        System.arraycopy(adjacencySequences, vertex + 1, adjacencySequences, vertex, size - vertex - 1);
+        adjacencySequences[--size] = null;
+
+        // Remove the edges to the vertex and adjust the indices of the vertices after it
+        for (int index = 0; index < size; index++)
+        {
+            this.removeNode (index, vertex);
+            for (Node node = adjacencySequences[index]; node != null; node = node.nextNode)
+                if (node.neighbourIndex > vertex)
+                    node.neighbourIndex--;
+        }
+        version++;
+    }
+
+    // Removes all vertices and edges
+    public void clear ()
+    {
+        for (int index = 0; index < size; index++)
+            adjacencySequences[index] = null;
+        size = 0;
+        version++;
+    }
+
+    // Returns an immutable snapshot of the graph with the given vertices, one for every index
+    <E> FrozenGraph<E> freeze (E[] vertices)
+    {
+        int[] firstEdge = new int[size + 1];
+        for (int index = 0; index < size; index++)
+            firstEdge[index + 1] = firstEdge[index] + this.degree (index);
+
+        int[] edgeTarget = new int[firstEdge[size]];
+        int[] edgeWeight = new int[edgeTarget.length];
+        for (int index = 0; index < size; index++)
+        {
+            int edge = firstEdge[index];
+            for (Node node = adjacencySequences[index]; node != null; node = node.nextNode)
+            {
+                edgeTarget[edge] = node.neighbourIndex;
+                edgeWeight[edge] = node.edgeWeight;
+                edge++;
+            }
+        }
+
+        return new FrozenGraph<E>(vertices, firstEdge, edgeTarget, edgeWeight);
+    }
+
+    // Returns an immutable snapshot of the graph, with the indices as vertices
+    public FrozenGraph<Integer> freeze ()
+    {
+        Integer[] vertices = new Integer[size];
+        for (int index = 0; index < size; index++)
+            vertices[index] = index;
+
+        return this.freeze (vertices);
+    }
+
+    // Returns the node of the first edge leaving the given vertex, or null
+    Node firstNode (int vertex) throws IllegalArgumentException
+    {
+        this.check (vertex);
+        return adjacencySequences[vertex];
+    }
+
+    // Returns the node of the edge between the given vertices, or null
+    private Node findNode (int from, int to)
+    {
+        Node node = adjacencySequences[from];
+        while (node != null && node.neighbourIndex != to)
+            node = node.nextNode;
+
+        return node;
+    }
+
+    // Removes the node of the edge between the given vertices, if there is one
+    private void removeNode (int from, int to)
+    {
+        Node currentNode = adjacencySequences[from];
+        Node previousNode = null;
+        while (currentNode != null && currentNode.neighbourIndex != to)
+        {
+            previousNode = currentNode;
+            currentNode = currentNode.nextNode;
+        }
+
+        if (currentNode != null)
+        {
+            if (previousNode != null)
+                previousNode.nextNode = currentNode.nextNode;
+            else
+                adjacencySequences[from] = currentNode.nextNode;
+        }
+    }
+
+    // Checks that the given index is a vertex of the graph
+    private void check (int vertex) throws IllegalArgumentException
+    {
+        if (vertex < 0 || vertex >= size)
+            throw new IllegalArgumentException (vertex + " was not found!");
+    }
+}
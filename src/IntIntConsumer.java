@@ -0,0 +1,12 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The interface representing a receiver of pairs of ints, such as the    *
+ * index and edge weight of every neighbour of a vertex.                  *
+ **************************************************************************/
+
+public interface IntIntConsumer
+{
+    // Receives a pair of ints
+    void accept (int first, int second);
+}
@@ -0,0 +1,311 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class finding the k shortest loopless paths between two vertices,  *
+ * using Yens algorithm. Before anything else a search backwards from the *
+ * target finds the distance from every vertex to the target. A spur path *
+ * that can follow that tree is then taken without a search, and the      *
+ * distances serve as lower bounds so that the remaining spur searches    *
+ * are only run for candidates that can still make it into the result.   *
+ **************************************************************************/
+
+public class KShortestPaths<E>
+{
+    // A possible next path: a root shared with an accepted path followed by a spur path
+    private static class Candidate implements Comparable<Candidate>
+    {
+        // The vertices of the path, or only the root if the spur path is not searched yet
+        int[] vertices;
+        // The index of the spur vertex, where the path leaves the accepted path
+        final int spur;
+        // The weight of the path, or a lower bound of it if the spur path is not searched yet
+        long weight;
+        // The edges leaving the spur vertex that the spur path may not use,
+        // or null once the spur path is searched
+        int[] blockedEdges;
+
+        public Candidate (int[] vertices, int spur, long weight, int[] blockedEdges)
+        {
+            this.vertices = vertices;
+            this.spur = spur;
+            this.weight = weight;
+            this.blockedEdges = blockedEdges;
+        }
+
+        // Checks if the spur path is not searched yet
+        public boolean isLowerBound ()
+        {
+            return blockedEdges != null;
+        }
+
+        @Override
+        public int compareTo (Candidate c)
+        {
+            if (weight != c.weight)
+                return weight < c.weight ? -1 : 1;
+            // Prefer finished paths over lower bounds of the same weight
+            if (this.isLowerBound () != c.isLowerBound ())
+                return this.isLowerBound () ? 1 : -1;
+            return 0;
+        }
+    }
+
+    // The vertices of a path, comparable by value
+    private static class PathKey
+    {
+        private final int[] vertices;
+
+        public PathKey (int[] vertices)
+        {
+            this.vertices = vertices;
+        }
+
+        @Override
+        public boolean equals (Object o)
+        {
+            return o instanceof PathKey && Arrays.equals(vertices, ((PathKey) o).vertices);
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            return Arrays.hashCode(vertices);
+        }
+    }
+
+    // The graph that is searched
+    private final FrozenGraph<E> graph;
+
+    // The engine running the spur searches
+    private final DijkstraEngine<E> engine;
+
+    // The engine running the search backwards from the target
+    private final DijkstraEngine<E> reverseEngine;
+
+    // The vertices and edges the spur searches may not use
+    private final boolean[] blockedVertices, blockedEdges;
+
+    // The amount of searches the last query needed
+    private int dijkstraInvocations = 0;
+
+    public KShortestPaths (FrozenGraph<E> graph) throws IllegalArgumentException
+    {
+        this.graph = graph;
+        engine = new DijkstraEngine<E>(graph);
+        reverseEngine = new DijkstraEngine<E>(graph.reverse());
+        blockedVertices = new boolean[graph.size()];
+        blockedEdges = new boolean[graph.edgeCount()];
+    }
+
+    // Returns the amount of Dijkstra searches the last call to kShortestPaths needed
+    public int dijkstraInvocations ()
+    {
+        return dijkstraInvocations;
+    }
+
+    // Returns up to k shortest paths without repeated vertices between the given
+    // vertices, ordered ascending by weight
+    public List<Path<E>> kShortestPaths (E source, E target, int k) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+
+        List<Path<E>> paths = new ArrayList<Path<E>>();
+        ShortestPathTree<E> toTarget = reverseEngine.shortestPaths(target);
+        dijkstraInvocations = 1;
+        if (k <= 0 || toTarget.distanceAt(sourceIndex) == ShortestPathTree.INFINITY)
+            return paths;
+
+        // The accepted paths and the candidates for the next one
+        List<int[]> accepted = new ArrayList<int[]>();
+        HashSet<PathKey> known = new HashSet<PathKey>();
+        PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>();
+
+        int[] first = this.treePath (new int[] {sourceIndex}, toTarget);
+        candidates.add(new Candidate(first, 0, toTarget.distanceAt(sourceIndex), null));
+        known.add(new PathKey(first));
+
+        while (paths.size() < k && !candidates.isEmpty())
+        {
+            Candidate candidate = candidates.poll();
+            if (candidate.isLowerBound ())
+            {
+                // The candidate is the most promising one, so its spur path is needed now
+                this.searchSpur (candidate, targetIndex);
+                if (candidate.vertices != null && known.add(new PathKey(candidate.vertices)))
+                    candidates.add(candidate);
+                continue;
+            }
+
+            accepted.add(candidate.vertices);
+            paths.add(this.toPath (candidate.vertices, candidate.weight));
+
+            // Deviations before the spur of the candidate were already tried
+            // when the path it deviates from was accepted (Lawlers rule)
+            int[] vertices = candidate.vertices;
+            long rootWeight = 0;
+            for (int spur = 0; spur < vertices.length - 1; spur++)
+            {
+                if (spur >= candidate.spur)
+                {
+                    Candidate next = this.deviation (vertices, spur, rootWeight, accepted, toTarget);
+                    if (next != null && (next.isLowerBound () || known.add(new PathKey(next.vertices))))
+                        candidates.add(next);
+                }
+                rootWeight += graph.edgeWeight[graph.edgeIndex(vertices[spur], vertices[spur + 1])];
+            }
+        }
+
+        return paths;
+    }
+
+    // Returns the candidate leaving the given path at the given spur index, or null if
+    // there is none. If the shortest allowed path from the spur vertex to the target can be
+    // read from the tree it is taken directly, otherwise a lower bound is returned and the
+    // search is postponed.
+    private Candidate deviation (int[] vertices, int spur, long rootWeight, List<int[]> accepted,
+                                 ShortestPathTree<E> toTarget)
+    {
+        int spurVertex = vertices[spur];
+        if (toTarget.distanceAt(spurVertex) == ShortestPathTree.INFINITY)
+            return null;
+
+        // Block the next edge of every accepted path sharing the root
+        int[] blocked = new int[accepted.size()];
+        int count = 0;
+        for (int[] path : accepted)
+        {
+            if (path.length > spur + 1 && this.sharesRoot (path, vertices, spur))
+            {
+                int edge = graph.edgeIndex(spurVertex, path[spur + 1]);
+                if (!this.contains (blocked, count, edge))
+                    blocked[count++] = edge;
+            }
+        }
+        blocked = Arrays.copyOf(blocked, count);
+
+        // Look one edge ahead: the best allowed edge followed by the shortest path from
+        // its end gives the spur path directly, unless that path returns to the root
+        for (int index = 0; index <= spur; index++)
+            blockedVertices[vertices[index]] = true;
+        int next = -1;
+        long spurWeight = ShortestPathTree.INFINITY;
+        for (int edge = graph.edgeStart(spurVertex); edge < graph.edgeEnd(spurVertex); edge++)
+        {
+            int neighbour = graph.edgeTarget[edge];
+            if (blockedVertices[neighbour] || this.contains (blocked, count, edge))
+                continue;
+            long weight = DijkstraEngine.saturatedAdd (toTarget.distanceAt(neighbour), graph.edgeWeight[edge]);
+            if (weight < spurWeight)
+            {
+                spurWeight = weight;
+                next = neighbour;
+            }
+        }
+        boolean treePathAllowed = next != -1;
+        for (int v = next; treePathAllowed && v != -1; v = toTarget.predecessorAt(v))
+            if (blockedVertices[v])
+                treePathAllowed = false;
+        for (int index = 0; index <= spur; index++)
+            blockedVertices[vertices[index]] = false;
+
+        if (next == -1)
+            return null;
+        if (treePathAllowed)
+        {
+            int[] root = Arrays.copyOf(vertices, spur + 2);
+            root[spur + 1] = next;
+            return new Candidate(this.treePath (root, toTarget), spur, rootWeight + spurWeight, null);
+        }
+
+        return new Candidate(Arrays.copyOf(vertices, spur + 1), spur, rootWeight + spurWeight, blocked);
+    }
+
+    // Runs the postponed spur search of the given candidate, leaving
+    // the vertices of the candidate null if there is no spur path
+    private void searchSpur (Candidate candidate, int target)
+    {
+        int[] root = candidate.vertices;
+        int spurVertex = root[candidate.spur];
+        for (int index = 0; index < candidate.spur; index++)
+            blockedVertices[root[index]] = true;
+        for (int edge : candidate.blockedEdges)
+            blockedEdges[edge] = true;
+
+        int[] spurPath = engine.shortestPath(spurVertex, target, blockedVertices, blockedEdges);
+        dijkstraInvocations++;
+
+        for (int index = 0; index < candidate.spur; index++)
+            blockedVertices[root[index]] = false;
+        for (int edge : candidate.blockedEdges)
+            blockedEdges[edge] = false;
+
+        if (spurPath == null)
+        {
+            candidate.vertices = null;
+            return;
+        }
+
+        int[] vertices = Arrays.copyOf(root, candidate.spur + spurPath.length);
+        System.arraycopy(spurPath, 0, vertices, candidate.spur, spurPath.length);
+
+        long rootWeight = 0;
+        for (int index = 0; index < candidate.spur; index++)
+            rootWeight += graph.edgeWeight[graph.edgeIndex(root[index], root[index + 1])];
+
+        candidate.vertices = vertices;
+        candidate.weight = rootWeight + engine.distanceTo(target);
+        candidate.blockedEdges = null;
+    }
+
+    // Checks if the first vertices of the given paths up to the given index are the same
+    private boolean sharesRoot (int[] path, int[] vertices, int spur)
+    {
+        for (int index = 0; index <= spur; index++)
+            if (path[index] != vertices[index])
+                return false;
+
+        return true;
+    }
+
+    // Checks if the first count elements of the given array contain the given value
+    private boolean contains (int[] array, int count, int value)
+    {
+        for (int index = 0; index < count; index++)
+            if (array[index] == value)
+                return true;
+
+        return false;
+    }
+
+    // Returns the given root followed by the shortest path from its last vertex to the target
+    private int[] treePath (int[] root, ShortestPathTree<E> toTarget)
+    {
+        int length = root.length;
+        for (int v = toTarget.predecessorAt(root[root.length - 1]); v != -1; v = toTarget.predecessorAt(v))
+            length++;
+
+        int[] vertices = Arrays.copyOf(root, length);
+        int index = root.length;
+        for (int v = toTarget.predecessorAt(root[root.length - 1]); v != -1; v = toTarget.predecessorAt(v))
+            vertices[index++] = v;
+
+        return vertices;
+    }
+
+    // Returns the path through the given vertex indices
+    private Path<E> toPath (int[] vertices, long weight)
+    {
+        List<E> path = new ArrayList<E>(vertices.length);
+        for (int index = 0; index < vertices.length; index++)
+            path.add(graph.vertex(vertices[index]));
+
+        return new Path<E>(path, weight);
+    }
+}
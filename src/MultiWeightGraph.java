@@ -0,0 +1,252 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing a frozen graph whose edges carry several        *
+ * weights, such as distance, travel time and toll cost. The weights of   *
+ * every criterion are kept in their own array, in the edge order of the  *
+ * graph. A query chooses its metric as a weighted sum of the criteria,   *
+ * computed while the edges are relaxed, so no graph has to be rebuilt    *
+ * for a new metric. For two criteria the whole trade-off between them    *
+ * can be found, as the paths no other path beats in both criteria.       *
+ **************************************************************************/
+
+public class MultiWeightGraph<E>
+{
+    // A path to a vertex with its cost in two criteria, for the Pareto search
+    private static class Label implements Comparable<Label>
+    {
+        // The vertex the path leads to
+        final int vertex;
+        // The cost of the path in both criteria
+        final long first, second;
+        // The path without its last edge, or null at the source
+        final Label previous;
+
+        public Label (int vertex, long first, long second, Label previous)
+        {
+            this.vertex = vertex;
+            this.first = first;
+            this.second = second;
+            this.previous = previous;
+        }
+
+        @Override
+        public int compareTo (Label l)
+        {
+            if (first != l.first)
+                return first < l.first ? -1 : 1;
+            if (second != l.second)
+                return second < l.second ? -1 : 1;
+            return 0;
+        }
+    }
+
+    // The graph whose edges carry the weights
+    private final FrozenGraph<E> graph;
+
+    // The weight of every edge for every criterion, weights[criterion][edge]
+    private final int[][] weights;
+
+    // The queue, distances and predecessors of the last weighted sum search
+    private final SearchSpace space;
+
+    // Creates the given amount of criteria on the edges of the given graph. The first
+    // criterion starts with the weights of the graph, the others with 0.
+    public MultiWeightGraph (FrozenGraph<E> graph, int criteria) throws IllegalArgumentException
+    {
+        if (criteria < 1)
+            throw new IllegalArgumentException ("At least one criterion is needed!");
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+
+        this.graph = graph;
+        weights = new int[criteria][graph.edgeCount()];
+        weights[0] = Arrays.copyOf(graph.edgeWeight, graph.edgeCount());
+
+        space = new SearchSpace(graph.size());
+    }
+
+    // Returns the graph whose edges carry the weights
+    public FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Returns the amount of criteria
+    public int criteria ()
+    {
+        return weights.length;
+    }
+
+    // Sets the weight of the edge between the given vertices for the given criterion
+    public void setWeight (int criterion, E vertex1, E vertex2, int edgeWeight) throws IllegalArgumentException
+    {
+        this.checkCriterion (criterion);
+        if (edgeWeight < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + edgeWeight + "!");
+
+        weights[criterion][this.edgeIndex (vertex1, vertex2)] = edgeWeight;
+    }
+
+    // Sets the weights of the given criterion to the weights of the same edges in the given
+    // graph, which must have the same vertices and at least the same edges
+    public void setWeights (int criterion, FrozenGraph<E> other) throws IllegalArgumentException
+    {
+        this.checkCriterion (criterion);
+        if (other.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + other.minEdgeWeight() + " found!");
+
+        int[] criterionWeights = new int[graph.edgeCount()];
+        for (int v = 0; v < graph.size(); v++)
+        {
+            int otherIndex = other.indexOf(graph.vertex(v));
+            if (otherIndex < 0)
+                throw new IllegalArgumentException (graph.vertex(v) + " was not found!");
+            for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+            {
+                E target = graph.vertex(graph.edgeTarget(edge));
+                int otherEdge = other.indexOf(target) < 0 ? -1 : other.edgeIndex(otherIndex, other.indexOf(target));
+                if (otherEdge < 0)
+                    throw new IllegalArgumentException ("There is no edge between " + graph.vertex(v) + " and " + target + "!");
+                criterionWeights[edge] = other.edgeWeight(otherEdge);
+            }
+        }
+        weights[criterion] = criterionWeights;
+    }
+
+    // Returns the weight of the edge between the given vertices for the given criterion
+    public int weight (int criterion, E vertex1, E vertex2) throws IllegalArgumentException
+    {
+        this.checkCriterion (criterion);
+        return weights[criterion][this.edgeIndex (vertex1, vertex2)];
+    }
+
+    // Returns the cost of the given path in every criterion
+    public long[] costs (Path<E> path) throws IllegalArgumentException
+    {
+        long[] costs = new long[weights.length];
+        List<E> vertices = path.vertices();
+        for (int index = 0; index + 1 < vertices.size(); index++)
+        {
+            int edge = this.edgeIndex (vertices.get(index), vertices.get(index + 1));
+            for (int criterion = 0; criterion < weights.length; criterion++)
+                costs[criterion] += weights[criterion][edge];
+        }
+
+        return costs;
+    }
+
+    // Returns the shortest path between the given vertices when the weight of every edge is
+    // the sum of its weights multiplied by the given coefficients, one for every criterion,
+    // or null if there is none
+    public Path<E> shortestPath (E source, E target, int[] coefficients) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+        if (coefficients.length != weights.length)
+            throw new IllegalArgumentException ("Expected " + weights.length + " coefficients!");
+        for (int coefficient : coefficients)
+            if (coefficient < 0)
+                throw new IllegalArgumentException ("Negative coefficient " + coefficient + "!");
+
+        space.reset();
+        space.reach(sourceIndex, 0, -1);
+        while (!space.isEmpty())
+        {
+            int v = space.settle();
+            if (v == targetIndex)
+                break;
+
+            for (int edge = graph.firstEdge[v]; edge < graph.firstEdge[v + 1]; edge++)
+            {
+                long edgeWeight = 0;
+                for (int criterion = 0; criterion < weights.length; criterion++)
+                    edgeWeight += (long) coefficients[criterion] * weights[criterion][edge];
+                space.reach(graph.edgeTarget[edge], DijkstraEngine.saturatedAdd (space.distance[v], edgeWeight), v);
+            }
+        }
+
+        if (space.distance[targetIndex] == ShortestPathTree.INFINITY)
+            return null;
+
+        return space.pathTo(graph, targetIndex, space.distance[targetIndex]);
+    }
+
+    // Returns the paths between the given vertices that no other path beats in both given
+    // criteria, ascending by the first criterion and so descending by the second. The weight
+    // of every path is its cost in the first criterion, costs gives the others. Of paths
+    // with the same costs only one is returned.
+    public List<Path<E>> paretoPaths (E source, E target, int first, int second) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+        this.checkCriterion (first);
+        this.checkCriterion (second);
+        int[] firstWeights = weights[first];
+        int[] secondWeights = weights[second];
+
+        // Labels are settled ascending by the first criterion, so a label is only kept
+        // if it is better in the second criterion than every label settled at its vertex
+        long[] bestSecond = new long[graph.size()];
+        Arrays.fill(bestSecond, ShortestPathTree.INFINITY);
+        List<Path<E>> paths = new ArrayList<Path<E>>();
+        PriorityQueue<Label> labels = new PriorityQueue<Label>();
+        labels.add(new Label(sourceIndex, 0, 0, null));
+        while (!labels.isEmpty())
+        {
+            Label label = labels.poll();
+            int v = label.vertex;
+            if (label.second >= bestSecond[v] || label.second >= bestSecond[targetIndex])
+                continue;
+            bestSecond[v] = label.second;
+            if (v == targetIndex)
+            {
+                paths.add(this.toPath (label));
+                continue;
+            }
+
+            for (int edge = graph.firstEdge[v]; edge < graph.firstEdge[v + 1]; edge++)
+            {
+                int neighbour = graph.edgeTarget[edge];
+                long newSecond = label.second + secondWeights[edge];
+                if (newSecond < bestSecond[neighbour] && newSecond < bestSecond[targetIndex])
+                    labels.add(new Label(neighbour, label.first + firstWeights[edge], newSecond, label));
+            }
+        }
+
+        return paths;
+    }
+
+    // Returns the path of the given label
+    private Path<E> toPath (Label label)
+    {
+        List<E> vertices = new ArrayList<E>();
+        for (Label l = label; l != null; l = l.previous)
+            vertices.add(graph.vertex(l.vertex));
+        Collections.reverse(vertices);
+
+        return new Path<E>(vertices, label.first);
+    }
+
+    // Returns the index of the edge between the given vertices
+    private int edgeIndex (E vertex1, E vertex2) throws IllegalArgumentException
+    {
+        int edge = graph.edgeIndex(graph.checkedIndexOf(vertex1), graph.checkedIndexOf(vertex2));
+        if (edge < 0)
+            throw new IllegalArgumentException ("There is no edge between " + vertex1 + " and " + vertex2 + "!");
+        return edge;
+    }
+
+    // Checks that the given criterion exists
+    private void checkCriterion (int criterion) throws IllegalArgumentException
+    {
+        if (criterion < 0 || criterion >= weights.length)
+            throw new IllegalArgumentException ("Criterion " + criterion + " was not found!");
+    }
+}
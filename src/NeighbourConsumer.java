@@ -0,0 +1,12 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The interface representing a receiver of the neighbours of a vertex,   *
+ * together with the weight of the edge to each of them.                  *
+ **************************************************************************/
+
+public interface NeighbourConsumer<E>
+{
+    // Receives a neighbour and the weight of the edge to it
+    void accept (E neighbour, int edgeWeight);
+}
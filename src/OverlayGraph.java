@@ -0,0 +1,287 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing a multi-level overlay of a partitioned frozen   *
+ * graph. Every level divides the graph into cells, and every cell is     *
+ * divided into the cells of the level below. For every cell the          *
+ * distances between its boundary vertices, the vertices with an edge to  *
+ * or from another cell, are computed inside the cell from the level      *
+ * below. A query searches the cells of the source and the target edge by *
+ * edge, and crosses every other cell in one step from boundary vertex to *
+ * boundary vertex, on the highest level where the cell contains neither  *
+ * of them. The edge weights are kept apart from the graph, so changing   *
+ * the weight of an edge only recomputes one cell on every level. The     *
+ * distances of a cell depend only on the cell itself and the cells       *
+ * below it, which keeps the cells independent of each other.             *
+ **************************************************************************/
+
+public class OverlayGraph<E>
+{
+    // The graph that is searched
+    private final FrozenGraph<E> graph;
+
+    // The amount of levels above the graph itself
+    private final int levels;
+
+    // The current weight of every edge of the graph
+    private final int[] weights;
+
+    // The cell of every vertex on every level, starting at level 1
+    private final int[][] cell;
+
+    // The amount of cells on every level
+    private final int[] cellCount;
+
+    // The boundary vertices of cell c on level l are found
+    // between boundaryStart[l][c] and boundaryStart[l][c + 1]
+    private final int[][] boundaryStart, boundary;
+
+    // Position of every vertex among the boundary vertices of its cell on every level, or -1
+    private final int[][] boundaryIndex;
+
+    // The distances inside every cell on every level between its boundary vertices, row by row
+    private final long[][][] cliques;
+
+    // The queue and distances of the searches, reused between searches
+    private final SearchSpace space;
+
+    // The amount of vertices the last query settled
+    private int settledCount = 0;
+
+    // Builds an overlay of the given graph with one level for every given amount
+    // of cells. The amounts must not grow, the first level has the smallest cells.
+    public OverlayGraph (FrozenGraph<E> graph, int... cells) throws IllegalArgumentException
+    {
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+        if (cells.length == 0)
+            throw new IllegalArgumentException ("At least one level is needed!");
+        for (int level = 1; level < cells.length; level++)
+            if (cells[level] > cells[level - 1])
+                throw new IllegalArgumentException ("Level " + (level + 1) + " has more cells than the level below!");
+
+        this.graph = graph;
+        levels = cells.length;
+        weights = Arrays.copyOf(graph.edgeWeight, graph.edgeCount());
+
+        int n = graph.size();
+        space = new SearchSpace(n);
+
+        // Divide the graph, and then the cells of every level into the cells of the next
+        cell = new int[levels + 1][];
+        cellCount = new int[levels + 1];
+        GraphPartition partition = new GraphPartition(graph, cells[0]);
+        cell[1] = Arrays.copyOf(partition.cell, n);
+        cellCount[1] = cells[0];
+        for (int level = 2; level <= levels; level++)
+        {
+            FrozenGraph<Integer> cellGraph = this.cellGraph (cell[level - 1], cellCount[level - 1]);
+            GraphPartition cellPartition = new GraphPartition(cellGraph, cells[level - 1]);
+            cell[level] = new int[n];
+            for (int v = 0; v < n; v++)
+                cell[level][v] = cellPartition.cell[cell[level - 1][v]];
+            cellCount[level] = cells[level - 1];
+        }
+
+        boundaryStart = new int[levels + 1][];
+        boundary = new int[levels + 1][];
+        boundaryIndex = new int[levels + 1][];
+        cliques = new long[levels + 1][][];
+        for (int level = 1; level <= levels; level++)
+        {
+            this.findBoundary (level);
+            cliques[level] = new long[cellCount[level]][];
+            for (int c = 0; c < cellCount[level]; c++)
+                this.customize (level, c);
+        }
+    }
+
+    // Returns the amount of levels above the graph itself
+    public int levels ()
+    {
+        return levels;
+    }
+
+    // Returns the amount of boundary vertices of all cells on the given level
+    public int boundaryCount (int level)
+    {
+        return boundary[level].length;
+    }
+
+    // Returns the amount of vertices the last query settled
+    public int settledCount ()
+    {
+        return settledCount;
+    }
+
+    // Changes the weight of the edge between the given vertices. Only the
+    // distances of the cells the edge lies in, one on every level, are recomputed.
+    public void setEdgeWeight (E vertex1, E vertex2, int edgeWeight) throws IllegalArgumentException
+    {
+        int index1 = graph.checkedIndexOf(vertex1);
+        int index2 = graph.checkedIndexOf(vertex2);
+        int edge = graph.edgeIndex(index1, index2);
+        if (edge < 0)
+            throw new IllegalArgumentException ("There is no edge between " + vertex1 + " and " + vertex2 + "!");
+        if (edgeWeight < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + edgeWeight + "!");
+
+        weights[edge] = edgeWeight;
+        for (int level = 1; level <= levels; level++)
+            if (cell[level][index1] == cell[level][index2])
+                this.customize (level, cell[level][index1]);
+    }
+
+    // Returns the distance between the given vertices, or ShortestPathTree.INFINITY
+    public long distance (E source, E target) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+
+        space.reset();
+        space.reach(sourceIndex, 0, -1);
+        settledCount = 0;
+        while (!space.isEmpty())
+        {
+            int v = space.settle();
+            settledCount++;
+            if (v == targetIndex)
+                break;
+
+            // Use the highest level where the cell of the vertex contains neither end
+            int level = levels;
+            while (level > 0 && (cell[level][v] == cell[level][sourceIndex] ||
+                                 cell[level][v] == cell[level][targetIndex]))
+                level--;
+            this.relax (v, level, 0, -1);
+        }
+
+        return space.distance[targetIndex];
+    }
+
+    // Relaxes the edges of the given settled vertex on the given level: the distances to
+    // the other boundary vertices of its cell and the edges leaving the cell. Only vertices
+    // in the given cell of the given filter level are reached, unless the filter level is 0.
+    private void relax (int v, int level, int filterLevel, int filterCell)
+    {
+        long d = space.distance[v];
+        if (level > 0)
+        {
+            int c = cell[level][v];
+            int first = boundaryStart[level][c];
+            int count = boundaryStart[level][c + 1] - first;
+            long[] clique = cliques[level][c];
+            int row = boundaryIndex[level][v] * count;
+            for (int column = 0; column < count; column++)
+                if (clique[row + column] != ShortestPathTree.INFINITY)
+                    space.reach(boundary[level][first + column], d + clique[row + column], v);
+        }
+
+        for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+        {
+            int neighbour = graph.edgeTarget(edge);
+            if (level > 0 && cell[level][neighbour] == cell[level][v])
+                continue;
+            if (filterLevel > 0 && cell[filterLevel][neighbour] != filterCell)
+                continue;
+            space.reach(neighbour, DijkstraEngine.saturatedAdd (d, weights[edge]), v);
+        }
+    }
+
+    // Recomputes the distances between the boundary vertices of the given cell on the
+    // given level, searching the cell on the level below
+    private void customize (int level, int c)
+    {
+        int first = boundaryStart[level][c];
+        int count = boundaryStart[level][c + 1] - first;
+        long[] clique = new long[count * count];
+        for (int row = 0; row < count; row++)
+        {
+            space.reset();
+            space.reach(boundary[level][first + row], 0, -1);
+            while (!space.isEmpty())
+                this.relax (space.settle(), level - 1, level, c);
+
+            for (int column = 0; column < count; column++)
+                clique[row * count + column] = space.distance[boundary[level][first + column]];
+        }
+        cliques[level][c] = clique;
+    }
+
+    // Finds the boundary vertices of the cells on the given level
+    private void findBoundary (int level)
+    {
+        int n = graph.size();
+        int[] cellOf = cell[level];
+        boolean[] isBoundary = new boolean[n];
+        for (int v = 0; v < n; v++)
+        {
+            for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+            {
+                int target = graph.edgeTarget(edge);
+                if (cellOf[target] != cellOf[v])
+                    isBoundary[v] = isBoundary[target] = true;
+            }
+        }
+
+        int[] start = new int[cellCount[level] + 1];
+        for (int v = 0; v < n; v++)
+            if (isBoundary[v])
+                start[cellOf[v] + 1]++;
+        for (int c = 0; c < cellCount[level]; c++)
+            start[c + 1] += start[c];
+
+        int[] vertices = new int[start[cellCount[level]]];
+        int[] index = new int[n];
+        Arrays.fill(index, -1);
+        int[] next = Arrays.copyOf(start, cellCount[level]);
+        for (int v = 0; v < n; v++)
+        {
+            if (isBoundary[v])
+            {
+                int c = cellOf[v];
+                index[v] = next[c] - start[c];
+                vertices[next[c]++] = v;
+            }
+        }
+
+        boundaryStart[level] = start;
+        boundary[level] = vertices;
+        boundaryIndex[level] = index;
+    }
+
+    // Returns the graph with one vertex for every cell and an edge
+    // between every two cells with an edge between them
+    private FrozenGraph<Integer> cellGraph (int[] cellOf, int cells)
+    {
+        long[] pairs = new long[graph.edgeCount()];
+        int count = 0;
+        for (int v = 0; v < graph.size(); v++)
+            for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+                if (cellOf[v] != cellOf[graph.edgeTarget(edge)])
+                    pairs[count++] = ((long) cellOf[v] << 32) | cellOf[graph.edgeTarget(edge)];
+        Arrays.sort(pairs, 0, count);
+
+        Integer[] vertices = new Integer[cells];
+        for (int c = 0; c < cells; c++)
+            vertices[c] = c;
+        int[] firstEdge = new int[cells + 1];
+        int[] edgeTarget = new int[count];
+        int edges = 0;
+        for (int index = 0; index < count; index++)
+        {
+            if (index > 0 && pairs[index] == pairs[index - 1])
+                continue;
+            firstEdge[(int) (pairs[index] >>> 32) + 1]++;
+            edgeTarget[edges++] = (int) pairs[index];
+        }
+        for (int c = 0; c < cells; c++)
+            firstEdge[c + 1] += firstEdge[c];
+
+        int[] edgeWeight = new int[edges];
+        Arrays.fill(edgeWeight, 1);
+        return new FrozenGraph<Integer>(vertices, firstEdge, Arrays.copyOf(edgeTarget, edges), edgeWeight);
+    }
+}
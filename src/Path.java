@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing a path through a graph and its total weight.   *
+ **************************************************************************/
+
+public class Path<E>
+{
+    // The vertices of the path, from the first to the last
+    private final List<E> vertices;
+
+    // The sum of the weights of the edges of the path
+    private final long weight;
+
+    public Path (List<E> vertices, long weight)
+    {
+        this.vertices = Collections.unmodifiableList(new ArrayList<E>(vertices));
+        this.weight = weight;
+    }
+
+    // Returns the vertices of the path, from the first to the last
+    public List<E> vertices ()
+    {
+        return vertices;
+    }
+
+    // Returns the sum of the weights of the edges of the path
+    public long weight ()
+    {
+        return weight;
+    }
+
+    // Returns the amount of edges of the path
+    public int length ()
+    {
+        return vertices.size() - 1;
+    }
+
+    // Returns the first vertex of the path
+    public E source ()
+    {
+        return vertices.get(0);
+    }
+
+    // Returns the last vertex of the path
+    public E target ()
+    {
+        return vertices.get(vertices.size() - 1);
+    }
+
+    @Override
+    public String toString ()
+    {
+        StringBuilder s = new StringBuilder();
+        s.append("{");
+        for (int index = 0; index < vertices.size(); index++)
+        {
+            s.append(vertices.get(index));
+            if (index != vertices.size() - 1)
+                s.append(", ");
+        }
+        s.append("}, Weight: ");
+        s.append(weight);
+        return s.toString();
+    }
+}
@@ -0,0 +1,276 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class storing precomputed data of frozen graphs in a directory, so *
+ * that it survives a restart. Every file is named after the data and a   *
+ * hash of the content of the graph it belongs to, and holds a number of  *
+ * int arrays followed by a number of long arrays. Loading maps the file  *
+ * into memory, checks that the hash and a checksum of the arrays match,  *
+ * and copies the arrays out, so the data of a graph that has changed     *
+ * since is never used. Files are written under a temporary name and then *
+ * renamed, so a crash never leaves a half written file behind.           *
+ * The hash includes the hash codes of the vertices, so only vertices     *
+ * whose hash codes do not change between runs, such as strings and       *
+ * numbers, let the data be found again after a restart.                  *
+ **************************************************************************/
+
+public class PrecomputationStore
+{
+    // The arrays stored in one file
+    private static class Content
+    {
+        final int[][] ints;
+        final long[][] longs;
+
+        Content (int[][] ints, long[][] longs)
+        {
+            this.ints = ints;
+            this.longs = longs;
+        }
+    }
+
+    // The first int of every file
+    private static final int MAGIC = 0x57444750;
+
+    // The version of the file layout
+    private static final int FORMAT = 2;
+
+    // The directory the files are kept in
+    private final File directory;
+
+    public PrecomputationStore (File directory) throws IOException
+    {
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException ("Could not create " + directory + "!");
+        this.directory = directory;
+    }
+
+    // Returns a hash of the vertices and edges of the given graph
+    public static long contentHash (FrozenGraph<?> graph)
+    {
+        long hash = mix (graph.size(), graph.edgeCount());
+        for (int v = 0; v < graph.size(); v++)
+        {
+            Object vertex = graph.vertex(v);
+            hash = mix (hash, vertex == null ? 0 : vertex.hashCode());
+            hash = mix (hash, graph.firstEdge[v + 1]);
+        }
+        for (int edge = 0; edge < graph.edgeCount(); edge++)
+        {
+            hash = mix (hash, graph.edgeTarget[edge]);
+            hash = mix (hash, graph.edgeWeight[edge]);
+        }
+
+        return hash ^ (hash >>> 31);
+    }
+
+    // Returns the contraction hierarchy of the given graph stored under the given
+    // name, or builds it and stores it if it is not stored yet
+    public <E> ContractionHierarchy<E> hierarchy (String name, FrozenGraph<E> graph) throws IOException
+    {
+        ContractionHierarchy<E> hierarchy = this.loadHierarchy (name, graph);
+        if (hierarchy == null)
+        {
+            hierarchy = new ContractionHierarchy<E>(graph);
+            this.save (name, hierarchy);
+        }
+
+        return hierarchy;
+    }
+
+    // Stores the given contraction hierarchy under the given name
+    public <E> void save (String name, ContractionHierarchy<E> hierarchy) throws IOException
+    {
+        this.write (name, hierarchy.graph(),
+                    new int[][] {hierarchy.rank, hierarchy.upFirstEdge, hierarchy.upEdgeTarget,
+                                 hierarchy.downFirstEdge, hierarchy.downEdgeTarget},
+                    new long[][] {hierarchy.upEdgeWeight, hierarchy.downEdgeWeight});
+    }
+
+    // Returns the contraction hierarchy of the given graph stored under the given
+    // name, or null if there is none for the graph as it is now
+    public <E> ContractionHierarchy<E> loadHierarchy (String name, FrozenGraph<E> graph) throws IOException
+    {
+        Content content = this.read (name, graph);
+        if (content == null || content.ints.length != 5 || content.longs.length != 2
+            || content.ints[0].length != graph.size())
+            return null;
+
+        int[][] ints = content.ints;
+        return new ContractionHierarchy<E>(graph, ints[0], ints[1], ints[2], content.longs[0],
+                                           ints[3], ints[4], content.longs[1]);
+    }
+
+    // Stores the given arrays, computed from the given graph, under the given name
+    public void saveArrays (String name, FrozenGraph<?> graph, int[]... arrays) throws IOException
+    {
+        this.write (name, graph, arrays, new long[0][]);
+    }
+
+    // Returns the arrays stored under the given name for the given graph, or null if
+    // there are none, or if they were computed from a graph with other content
+    public int[][] loadArrays (String name, FrozenGraph<?> graph) throws IOException
+    {
+        Content content = this.read (name, graph);
+        return content == null || content.longs.length != 0 ? null : content.ints;
+    }
+
+    // Stores the given int and long arrays, computed from the given graph, under the given name
+    private void write (String name, FrozenGraph<?> graph, int[][] ints, long[][] longs) throws IOException
+    {
+        long hash = contentHash (graph);
+        File file = this.file (name, hash);
+        File temporary = new File(directory, file.getName() + ".tmp");
+
+        long bytes = 0;
+        for (int[] array : ints)
+            bytes += 4L * array.length;
+        for (long[] array : longs)
+            bytes += 8L * array.length;
+
+        RandomAccessFile output = new RandomAccessFile(temporary, "rw");
+        try
+        {
+            output.setLength(0);
+            FileChannel channel = output.getChannel();
+            long size = this.headerSize (ints.length + longs.length) + bytes;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT);
+            buffer.putLong(hash);
+            // The checksum is filled in once the arrays are written
+            buffer.putLong(0);
+            buffer.putInt(ints.length);
+            buffer.putInt(longs.length);
+            for (int[] array : ints)
+                buffer.putInt(array.length);
+            for (long[] array : longs)
+                buffer.putInt(array.length);
+            for (int[] array : ints)
+            {
+                buffer.asIntBuffer().put(array);
+                buffer.position(buffer.position() + 4 * array.length);
+            }
+            for (long[] array : longs)
+            {
+                buffer.asLongBuffer().put(array);
+                buffer.position(buffer.position() + 8 * array.length);
+            }
+
+            ByteBuffer data = buffer.duplicate();
+            data.position((int) this.headerSize (ints.length + longs.length));
+            CRC32 checksum = new CRC32();
+            checksum.update(data);
+            buffer.putLong(16, checksum.getValue());
+            buffer.force();
+        }
+        finally
+        {
+            output.close();
+        }
+
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns the arrays stored under the given name for the given graph, or null if
+    // there are none, or if they were computed from a graph with other content
+    private Content read (String name, FrozenGraph<?> graph) throws IOException
+    {
+        long hash = contentHash (graph);
+        File file = this.file (name, hash);
+        if (!file.isFile())
+            return null;
+
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try
+        {
+            FileChannel channel = input.getChannel();
+            long size = channel.size();
+            if (size < this.headerSize (0))
+                return null;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT || buffer.getLong() != hash)
+                return null;
+            long expectedChecksum = buffer.getLong();
+            int intCount = buffer.getInt();
+            int longCount = buffer.getInt();
+            if (intCount < 0 || longCount < 0 || size < this.headerSize ((long) intCount + longCount))
+                return null;
+
+            int[] lengths = new int[intCount + longCount];
+            long bytes = 0;
+            for (int index = 0; index < lengths.length; index++)
+            {
+                lengths[index] = buffer.getInt();
+                if (lengths[index] < 0)
+                    return null;
+                bytes += (index < intCount ? 4L : 8L) * lengths[index];
+            }
+            if (size != this.headerSize (lengths.length) + bytes)
+                return null;
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate());
+            if (checksum.getValue() != expectedChecksum)
+                return null;
+
+            int[][] ints = new int[intCount][];
+            IntBuffer intData = buffer.asIntBuffer();
+            for (int index = 0; index < intCount; index++)
+            {
+                ints[index] = new int[lengths[index]];
+                intData.get(ints[index]);
+            }
+            buffer.position(buffer.position() + 4 * intData.position());
+
+            long[][] longs = new long[longCount][];
+            LongBuffer longData = buffer.asLongBuffer();
+            for (int index = 0; index < longCount; index++)
+            {
+                longs[index] = new long[lengths[intCount + index]];
+                longData.get(longs[index]);
+            }
+
+            return new Content(ints, longs);
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    // Returns the file of the given name for the graph with the given hash
+    private File file (String name, long hash)
+    {
+        return new File(directory, name + "-" + Long.toHexString(hash) + ".bin");
+    }
+
+    // Returns the amount of bytes before the arrays of a file with the given amount of arrays
+    private long headerSize (long arrays)
+    {
+        return 4 + 4 + 8 + 8 + 4 + 4 + 4 * arrays;
+    }
+
+    // Returns the given hash with the given value mixed in
+    private static long mix (long hash, int value)
+    {
+        hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+}
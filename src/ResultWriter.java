@@ -0,0 +1,433 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class writing graphs, shortest path trees and paths to a channel   *
+ * or stream, either as JSON or in a compact binary form. Everything is   *
+ * encoded straight into one reused buffer, which is passed on whenever   *
+ * it is full, so no strings are built for numbers, indices or the        *
+ * result as a whole. Only vertices that are not integers are turned into *
+ * strings, one at a time, by their toString method.                      *
+ * Every write can be limited to the first vertices of the graph, by      *
+ * index. Indices in the output, such as the targets of edges and the     *
+ * predecessors in a tree, always refer to the whole graph, and the size  *
+ * written first tells if the output was limited.                         *
+ *                                                                        *
+ * The binary form is big endian. A vertex is a tag byte followed by its  *
+ * value: 0 for null, 1 and an int, 2 and a long, or 3, the length in     *
+ * bytes and the UTF-8 bytes of its toString.                             *
+ *   graph: 'G', int size, int count, count vertices, then for each of    *
+ *          them int degree and degree times int target, int weight       *
+ *   tree:  'T', int size, int count, int source, then for each of them   *
+ *          the vertex, long distance, int predecessor or -1              *
+ *   path:  'P', long weight, int count, count vertices                   *
+ **************************************************************************/
+
+public class ResultWriter
+{
+    // The limit on the amount of vertices that writes all of them
+    public static final int ALL = Integer.MAX_VALUE;
+
+    // The size of the buffer, which must hold the longest encoded number
+    private static final int BUFFER_SIZE = 8192;
+
+    // The tags of vertices in the binary form
+    private static final byte NULL = 0, INT = 1, LONG = 2, STRING = 3;
+
+    // The channel that is written to
+    private final WritableByteChannel channel;
+
+    // The stream behind the channel, flushed after every write, or null
+    private final OutputStream stream;
+
+    // The buffer bytes are encoded into
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    // The digits of a number, from the last to the first
+    private final byte[] digits = new byte[20];
+
+    public ResultWriter (WritableByteChannel channel)
+    {
+        this.channel = channel;
+        this.stream = null;
+    }
+
+    public ResultWriter (OutputStream stream)
+    {
+        this.channel = Channels.newChannel(stream);
+        this.stream = stream;
+    }
+
+    // Writes the given amount of first vertices of the given graph and their edges as JSON:
+    // {"size": n, "vertices": [...], "edges": [[from, to, weight], ...]}
+    public <E> void writeJson (WDGraph<E> graph, int maxVertices) throws IOException
+    {
+        int count = this.count (graph.size(), maxVertices);
+        this.writeAscii ("{\"size\":");
+        this.writeNumber (graph.size());
+        this.writeAscii (",\"vertices\":[");
+        for (int v = 0; v < count; v++)
+        {
+            if (v > 0)
+                this.writeByte (',');
+            this.writeJsonVertex (graph.vertexAt(v));
+        }
+        this.writeAscii ("],\"edges\":[");
+        boolean first = true;
+        IntGraph edges = graph.intGraph();
+        for (int v = 0; v < count; v++)
+            for (IntGraph.Node node = edges.firstNode(v); node != null; node = node.nextNode)
+            {
+                this.writeJsonEdge (first, v, node.neighbourIndex, node.edgeWeight);
+                first = false;
+            }
+        this.writeAscii ("]}");
+        this.flush ();
+    }
+
+    // Writes the given amount of first vertices of the given graph and their edges as JSON,
+    // in the same form as a WDGraph
+    public <E> void writeJson (FrozenGraph<E> graph, int maxVertices) throws IOException
+    {
+        int count = this.count (graph.size(), maxVertices);
+        this.writeAscii ("{\"size\":");
+        this.writeNumber (graph.size());
+        this.writeAscii (",\"vertices\":[");
+        for (int v = 0; v < count; v++)
+        {
+            if (v > 0)
+                this.writeByte (',');
+            this.writeJsonVertex (graph.vertex(v));
+        }
+        this.writeAscii ("],\"edges\":[");
+        boolean first = true;
+        for (int v = 0; v < count; v++)
+            for (int edge = graph.firstEdge[v]; edge < graph.firstEdge[v + 1]; edge++)
+            {
+                this.writeJsonEdge (first, v, graph.edgeTarget[edge], graph.edgeWeight[edge]);
+                first = false;
+            }
+        this.writeAscii ("]}");
+        this.flush ();
+    }
+
+    // Writes the given amount of first vertices of the given tree as JSON, with null for the
+    // distance and -1 for the predecessor of vertices that can not be reached:
+    // {"size": n, "source": index, "vertices": [...], "distances": [...], "predecessors": [...]}
+    public <E> void writeJson (ShortestPathTree<E> tree, int maxVertices) throws IOException
+    {
+        FrozenGraph<E> graph = tree.graph();
+        int count = this.count (graph.size(), maxVertices);
+        this.writeAscii ("{\"size\":");
+        this.writeNumber (graph.size());
+        this.writeAscii (",\"source\":");
+        this.writeNumber (tree.sourceIndex());
+        this.writeAscii (",\"vertices\":[");
+        for (int v = 0; v < count; v++)
+        {
+            if (v > 0)
+                this.writeByte (',');
+            this.writeJsonVertex (graph.vertex(v));
+        }
+        this.writeAscii ("],\"distances\":[");
+        for (int v = 0; v < count; v++)
+        {
+            if (v > 0)
+                this.writeByte (',');
+            if (tree.distanceAt(v) == ShortestPathTree.INFINITY)
+                this.writeAscii ("null");
+            else
+                this.writeNumber (tree.distanceAt(v));
+        }
+        this.writeAscii ("],\"predecessors\":[");
+        for (int v = 0; v < count; v++)
+        {
+            if (v > 0)
+                this.writeByte (',');
+            this.writeNumber (tree.predecessorAt(v));
+        }
+        this.writeAscii ("]}");
+        this.flush ();
+    }
+
+    // Writes the given path as JSON: {"weight": w, "vertices": [...]}
+    public <E> void writeJson (Path<E> path) throws IOException
+    {
+        this.writeAscii ("{\"weight\":");
+        this.writeNumber (path.weight());
+        this.writeAscii (",\"vertices\":[");
+        List<E> vertices = path.vertices();
+        for (int index = 0; index < vertices.size(); index++)
+        {
+            if (index > 0)
+                this.writeByte (',');
+            this.writeJsonVertex (vertices.get(index));
+        }
+        this.writeAscii ("]}");
+        this.flush ();
+    }
+
+    // Writes the given amount of first vertices of the given graph and their edges in binary
+    public <E> void writeBinary (WDGraph<E> graph, int maxVertices) throws IOException
+    {
+        int count = this.count (graph.size(), maxVertices);
+        this.ensure (9);
+        buffer.put((byte) 'G').putInt(graph.size()).putInt(count);
+        for (int v = 0; v < count; v++)
+            this.writeBinaryVertex (graph.vertexAt(v));
+
+        IntGraph edges = graph.intGraph();
+        for (int v = 0; v < count; v++)
+        {
+            this.ensure (4);
+            buffer.putInt(edges.degree(v));
+            for (IntGraph.Node node = edges.firstNode(v); node != null; node = node.nextNode)
+            {
+                this.ensure (8);
+                buffer.putInt(node.neighbourIndex).putInt(node.edgeWeight);
+            }
+        }
+        this.flush ();
+    }
+
+    // Writes the given amount of first vertices of the given graph and their edges in binary,
+    // in the same form as a WDGraph
+    public <E> void writeBinary (FrozenGraph<E> graph, int maxVertices) throws IOException
+    {
+        int count = this.count (graph.size(), maxVertices);
+        this.ensure (9);
+        buffer.put((byte) 'G').putInt(graph.size()).putInt(count);
+        for (int v = 0; v < count; v++)
+            this.writeBinaryVertex (graph.vertex(v));
+
+        for (int v = 0; v < count; v++)
+        {
+            this.ensure (4);
+            buffer.putInt(graph.firstEdge[v + 1] - graph.firstEdge[v]);
+            for (int edge = graph.firstEdge[v]; edge < graph.firstEdge[v + 1]; edge++)
+            {
+                this.ensure (8);
+                buffer.putInt(graph.edgeTarget[edge]).putInt(graph.edgeWeight[edge]);
+            }
+        }
+        this.flush ();
+    }
+
+    // Writes the given amount of first vertices of the given tree in binary, with the distance
+    // ShortestPathTree.INFINITY for vertices that can not be reached
+    public <E> void writeBinary (ShortestPathTree<E> tree, int maxVertices) throws IOException
+    {
+        FrozenGraph<E> graph = tree.graph();
+        int count = this.count (graph.size(), maxVertices);
+        this.ensure (13);
+        buffer.put((byte) 'T').putInt(graph.size()).putInt(count).putInt(tree.sourceIndex());
+        for (int v = 0; v < count; v++)
+        {
+            this.writeBinaryVertex (graph.vertex(v));
+            this.ensure (12);
+            buffer.putLong(tree.distanceAt(v)).putInt(tree.predecessorAt(v));
+        }
+        this.flush ();
+    }
+
+    // Writes the given path in binary
+    public <E> void writeBinary (Path<E> path) throws IOException
+    {
+        List<E> vertices = path.vertices();
+        this.ensure (13);
+        buffer.put((byte) 'P').putLong(path.weight()).putInt(vertices.size());
+        for (E vertex : vertices)
+            this.writeBinaryVertex (vertex);
+        this.flush ();
+    }
+
+    // Passes everything in the buffer on to the channel
+    public void flush () throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+        if (stream != null)
+            stream.flush();
+    }
+
+    // Returns the amount of vertices to write of a graph of the given size
+    private int count (int size, int maxVertices) throws IllegalArgumentException
+    {
+        if (maxVertices < 0)
+            throw new IllegalArgumentException ("Negative amount of vertices " + maxVertices + "!");
+        return Math.min(size, maxVertices);
+    }
+
+    // Writes an edge as a JSON array, after a comma unless it is the first one
+    private void writeJsonEdge (boolean first, int from, int to, int edgeWeight) throws IOException
+    {
+        if (!first)
+            this.writeByte (',');
+        this.writeByte ('[');
+        this.writeNumber (from);
+        this.writeByte (',');
+        this.writeNumber (to);
+        this.writeByte (',');
+        this.writeNumber (edgeWeight);
+        this.writeByte (']');
+    }
+
+    // Writes the given vertex as a JSON number if it is an integer, or else as a string
+    private void writeJsonVertex (Object vertex) throws IOException
+    {
+        if (vertex == null)
+            this.writeAscii ("null");
+        else if (vertex instanceof Integer || vertex instanceof Long
+                 || vertex instanceof Short || vertex instanceof Byte)
+            this.writeNumber (((Number) vertex).longValue());
+        else
+        {
+            String string = vertex.toString();
+            this.writeByte ('"');
+            for (int index = 0; index < string.length(); index++)
+            {
+                char c = string.charAt(index);
+                if (c == '"' || c == '\\')
+                {
+                    this.writeByte ('\\');
+                    this.writeByte (c);
+                }
+                else if (c < 0x20)
+                {
+                    this.writeAscii ("\\u00");
+                    this.writeByte (Character.forDigit(c >> 4, 16));
+                    this.writeByte (Character.forDigit(c & 15, 16));
+                }
+                else
+                    index = this.writeUtf8 (string, index);
+            }
+            this.writeByte ('"');
+        }
+    }
+
+    // Writes the given vertex in binary
+    private void writeBinaryVertex (Object vertex) throws IOException
+    {
+        this.ensure (9);
+        if (vertex == null)
+            buffer.put(NULL);
+        else if (vertex instanceof Integer || vertex instanceof Short || vertex instanceof Byte)
+            buffer.put(INT).putInt(((Number) vertex).intValue());
+        else if (vertex instanceof Long)
+            buffer.put(LONG).putLong((Long) vertex);
+        else
+        {
+            String string = vertex.toString();
+            int length = 0;
+            for (int index = 0; index < string.length(); index++)
+            {
+                char c = string.charAt(index);
+                if (c < 0x80)
+                    length += 1;
+                else if (c < 0x800)
+                    length += 2;
+                else if (Character.isHighSurrogate(c) && index + 1 < string.length()
+                         && Character.isLowSurrogate(string.charAt(index + 1)))
+                {
+                    length += 4;
+                    index++;
+                }
+                else if (Character.isSurrogate(c))
+                    length += 1;
+                else
+                    length += 3;
+            }
+
+            buffer.put(STRING).putInt(length);
+            for (int index = 0; index < string.length(); index++)
+                index = this.writeUtf8 (string, index);
+        }
+    }
+
+    // Writes the character of the given string at the given index as UTF-8 and returns
+    // the index of its last char, which differs for a surrogate pair. A lone surrogate
+    // is written as a question mark, like String.getBytes does.
+    private int writeUtf8 (String string, int index) throws IOException
+    {
+        this.ensure (4);
+        char c = string.charAt(index);
+        if (c < 0x80)
+            buffer.put((byte) c);
+        else if (c < 0x800)
+            buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+        else if (Character.isHighSurrogate(c) && index + 1 < string.length()
+                 && Character.isLowSurrogate(string.charAt(index + 1)))
+        {
+            int codePoint = Character.toCodePoint(c, string.charAt(++index));
+            buffer.put((byte) (0xF0 | codePoint >> 18)).put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                  .put((byte) (0x80 | codePoint >> 6 & 0x3F)).put((byte) (0x80 | codePoint & 0x3F));
+        }
+        else if (Character.isSurrogate(c))
+            buffer.put((byte) '?');
+        else
+            buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F))
+                  .put((byte) (0x80 | c & 0x3F));
+
+        return index;
+    }
+
+    // Writes the given number in decimal
+    private void writeNumber (long number) throws IOException
+    {
+        this.ensure (20);
+        if (number == Long.MIN_VALUE)
+        {
+            this.writeAscii ("-9223372036854775808");
+            return;
+        }
+        if (number < 0)
+        {
+            buffer.put((byte) '-');
+            number = -number;
+        }
+
+        int count = 0;
+        do
+        {
+            digits[count++] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        while (number != 0);
+        while (count > 0)
+            buffer.put(digits[--count]);
+    }
+
+    // Writes the given text, which must only contain ASCII characters
+    private void writeAscii (String text) throws IOException
+    {
+        for (int index = 0; index < text.length(); index++)
+            this.writeByte (text.charAt(index));
+    }
+
+    // Writes the given ASCII character
+    private void writeByte (char c) throws IOException
+    {
+        this.ensure (1);
+        buffer.put((byte) c);
+    }
+
+    // Makes room for the given amount of bytes in the buffer
+    private void ensure (int bytes) throws IOException
+    {
+        if (buffer.remaining() < bytes)
+        {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class holding the state of a Dijkstra search over vertex indices:  *
+ * the queue of vertices that are not yet settled, the distance and the   *
+ * predecessor of every vertex, and the vertices reached so far. The      *
+ * engines keep one and reuse it for every search, and reset only touches *
+ * the vertices the last search reached. How the edges of a vertex are    *
+ * relaxed is left to the engines, which pass every new distance to       *
+ * reach.                                                                 *
+ **************************************************************************/
+
+class SearchSpace
+{
+    // The queue of vertices that are not yet settled
+    final VertexQueue queue;
+
+    // Distance from the source to every vertex, or ShortestPathTree.INFINITY
+    final long[] distance;
+
+    // Index of the previous vertex on the path to every vertex, or -1
+    final int[] predecessor;
+
+    // The vertices reached since the last reset, in the order they were reached
+    final int[] reached;
+
+    // The amount of vertices reached since the last reset
+    int reachedCount = 0;
+
+    // Creates the state of searches over the given amount of vertices, queued in a binary heap
+    SearchSpace (int size)
+    {
+        this(new IndexedBinaryHeap(size), size);
+    }
+
+    // Creates the state of searches over the given amount of vertices, queued in the given queue
+    SearchSpace (VertexQueue queue, int size)
+    {
+        this.queue = queue;
+        distance = new long[size];
+        predecessor = new int[size];
+        reached = new int[size];
+        Arrays.fill(distance, ShortestPathTree.INFINITY);
+        Arrays.fill(predecessor, -1);
+    }
+
+    // Forgets the distances found by the last search
+    void reset ()
+    {
+        for (int index = 0; index < reachedCount; index++)
+        {
+            distance[reached[index]] = ShortestPathTree.INFINITY;
+            predecessor[reached[index]] = -1;
+        }
+        reachedCount = 0;
+        queue.clear();
+    }
+
+    // Lowers the distance of the given vertex to the given distance, over an edge from the
+    // given vertex or -1 for a source, if it is shorter. Returns if the distance was lowered.
+    boolean reach (int v, long newDistance, int from)
+    {
+        if (newDistance >= distance[v])
+            return false;
+
+        if (distance[v] == ShortestPathTree.INFINITY)
+            reached[reachedCount++] = v;
+        distance[v] = newDistance;
+        predecessor[v] = from;
+        queue.update(v, newDistance);
+        return true;
+    }
+
+    // Checks if every reached vertex is settled
+    boolean isEmpty ()
+    {
+        return queue.isEmpty();
+    }
+
+    // Removes the queued vertex with the smallest distance from the queue and returns it
+    int settle ()
+    {
+        return queue.extractMin();
+    }
+
+    // Returns the path found to the given vertex, which must have been reached, with the given weight
+    <E> Path<E> pathTo (FrozenGraph<E> graph, int target, long weight)
+    {
+        return new Path<E>(ShortestPathTree.walkBack (graph, predecessor, target), weight);
+    }
+
+    // Returns the distances and predecessors found from the given source as a tree
+    <E> ShortestPathTree<E> toTree (FrozenGraph<E> graph, int source)
+    {
+        return new ShortestPathTree<E>(graph, source, distance.clone(), predecessor.clone());
+    }
+}
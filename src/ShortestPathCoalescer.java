@@ -0,0 +1,110 @@
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class letting concurrent shortest path queries from the same       *
+ * source share a single computation, as long as the graph is unchanged.  *
+ **************************************************************************/
+
+public class ShortestPathCoalescer<E>
+{
+    // Identifies a computation by its source vertex and the version of the graph
+    private static class Key
+    {
+        // The source vertex of the computation
+        private final Object source;
+        // The version of the graph the computation runs against
+        private final int version;
+
+        public Key (Object source, int version)
+        {
+            this.source = source;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals (Object o)
+        {
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return version == key.version && source.equals(key.source);
+        }
+
+        @Override
+        public int hashCode ()
+        {
+            return 31 * source.hashCode() + version;
+        }
+    }
+
+    // The graph the queries are run against
+    private final WDGraph<E> graph;
+
+    // The computations that are currently running
+    private final ConcurrentHashMap<Key, FutureTask<WDGraph<E>>> inFlight =
+        new ConcurrentHashMap<Key, FutureTask<WDGraph<E>>>();
+
+    public ShortestPathCoalescer (WDGraph<E> graph)
+    {
+        this.graph = graph;
+    }
+
+    // Returns the optimal shortest path from the given vertex to all the other vertices.
+    // Threads asking for the same vertex while a computation is running wait for that
+    // computation and all receive the same result graph, which must therefore not be modified.
+    // The graph itself must not be modified while queries are running.
+    public WDGraph<E> optimalShortestPath (final E vertex) throws IllegalArgumentException
+    {
+        if (!graph.containsVertex (vertex))
+            throw new IllegalArgumentException (vertex + " was not found!");
+
+        Key key = new Key(vertex, graph.version());
+        FutureTask<WDGraph<E>> task = inFlight.get(key);
+        if (task == null)
+        {
+            FutureTask<WDGraph<E>> newTask = new FutureTask<WDGraph<E>>(new Callable<WDGraph<E>>()
+            {
+                public WDGraph<E> call ()
+                {
+                    return ShortestPathCoalescer.this.compute (vertex);
+                }
+            });
+
+            // Only the thread that manages to register the computation runs it
+            task = inFlight.putIfAbsent(key, newTask);
+            if (task == null)
+            {
+                task = newTask;
+                try
+                {
+                    task.run();
+                }
+                finally
+                {
+                    // Later queries start a new computation instead of reusing this one
+                    inFlight.remove(key, task);
+                }
+            }
+        }
+
+        return Tasks.await(task, "waiting for the path from " + vertex);
+    }
+
+    // Runs the computation for the given vertex. The result graph has the same vertices
+    // as the graph, but optimalShortestPath returns it as a raw WDGraph.
+    @SuppressWarnings("unchecked")
+    private WDGraph<E> compute (E vertex)
+    {
+        return (WDGraph<E>) graph.optimalShortestPath(vertex, false);
+    }
+
+    // Returns the amount of computations that are currently running
+    public int inFlight ()
+    {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,150 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class representing the result of a shortest path search: the      *
+ * distance to and the previous vertex of every vertex of the graph.      *
+ * Vertices that can not be reached have the distance INFINITY.           *
+ **************************************************************************/
+
+public class ShortestPathTree<E>
+{
+    // Distance of a vertex that can not be reached
+    public static final long INFINITY = Long.MAX_VALUE;
+
+    // The graph that was searched
+    private final FrozenGraph<E> graph;
+
+    // Index of the source vertex
+    private final int source;
+
+    // Distance from the source to every vertex
+    private final long[] distance;
+
+    // Index of the previous vertex on the path to every vertex, or -1
+    private final int[] predecessor;
+
+    ShortestPathTree (FrozenGraph<E> graph, int source, long[] distance, int[] predecessor)
+    {
+        this.graph = graph;
+        this.source = source;
+        this.distance = distance;
+        this.predecessor = predecessor;
+    }
+
+    // Returns the source vertex
+    public E source ()
+    {
+        return graph.vertex(source);
+    }
+
+    // Returns the graph that was searched
+    FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Returns the index of the source vertex
+    int sourceIndex ()
+    {
+        return source;
+    }
+
+
+    // Checks if there is a path from the source to the given vertex
+    public boolean isReachable (E vertex) throws IllegalArgumentException
+    {
+        return distance[graph.checkedIndexOf(vertex)] != INFINITY;
+    }
+
+    // Returns the distance from the source to the given vertex, or INFINITY
+    public long distance (E vertex) throws IllegalArgumentException
+    {
+        return distance[graph.checkedIndexOf(vertex)];
+    }
+
+    // Returns the distance from the source to the given vertex index, or INFINITY
+    long distanceAt (int vertex)
+    {
+        return distance[vertex];
+    }
+
+    // Returns the index of the previous vertex on the path to the given vertex index, or -1
+    int predecessorAt (int vertex)
+    {
+        return predecessor[vertex];
+    }
+
+    // Returns the amount of vertices that can not be reached from the source
+    public int unreachableCount ()
+    {
+        int count = 0;
+        for (int v = 0; v < distance.length; v++)
+            if (distance[v] == INFINITY)
+                count++;
+
+        return count;
+    }
+
+    // Returns the vertices that can not be reached from the source
+    public List<E> unreachableVertices ()
+    {
+        List<E> unreachable = new ArrayList<E>(this.unreachableCount ());
+        for (int v = 0; v < distance.length; v++)
+            if (distance[v] == INFINITY)
+                unreachable.add(graph.vertex(v));
+
+        return unreachable;
+    }
+
+    // Returns the previous vertex on the path to the given vertex,
+    // or null for the source and vertices that can not be reached
+    public E predecessor (E vertex) throws IllegalArgumentException
+    {
+        int index = predecessor[graph.checkedIndexOf(vertex)];
+        return index == -1 ? null : graph.vertex(index);
+    }
+
+    // Returns the vertices on the path from the source to the given vertex,
+    // or null if the vertex can not be reached
+    public List<E> pathTo (E vertex) throws IllegalArgumentException
+    {
+        int index = graph.checkedIndexOf(vertex);
+        if (distance[index] == INFINITY)
+            return null;
+
+        return walkBack (graph, predecessor, index);
+    }
+
+    // Returns the vertices on the path to the given vertex index, found by following
+    // the given predecessors until a vertex without one, and so from the source on
+    static <E> List<E> walkBack (FrozenGraph<E> graph, int[] predecessor, int vertex)
+    {
+        List<E> path = new ArrayList<E>();
+        for (int v = vertex; v != -1; v = predecessor[v])
+            path.add(graph.vertex(v));
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    // Returns the tree as a graph, in the same form as WDGraph.optimalShortestPath
+    public WDGraph<E> toGraph ()
+    {
+        WDGraph<E> resultGraph = new WDGraph<E>(graph.size());
+        resultGraph.addVertex(graph.vertex(source));
+        for (int v = 0; v < distance.length; v++)
+            if (distance[v] != INFINITY)
+                resultGraph.addVertex(graph.vertex(v));
+
+        for (int v = 0; v < distance.length; v++)
+            if (predecessor[v] != -1)
+                resultGraph.addEdge(graph.vertex(predecessor[v]), graph.vertex(v),
+                                    (int) (distance[v] - distance[predecessor[v]]));
+
+        return resultGraph;
+    }
+}
@@ -0,0 +1,38 @@
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**************************************************************************
+ * Last changed: 2026-10-19                                               *
+ *                                                                        *
+ * The class waiting for tasks run on other threads. Whatever a task      *
+ * threw is rethrown to the caller, unchecked exceptions and errors as    *
+ * they are and checked exceptions wrapped in an IllegalStateException,   *
+ * so callers do not have to unpack an ExecutionException.                *
+ **************************************************************************/
+
+class Tasks
+{
+    // Returns the result of the given task, rethrowing whatever it threw. An interrupted
+    // wait keeps the interrupt flag and fails with "Interrupted while " and the given activity.
+    static <T> T await (Future<T> future, String activity)
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException ("Interrupted while " + activity, e);
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException (cause);
+        }
+    }
+}
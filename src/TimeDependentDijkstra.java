@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class implementing Dijkstras algorithm on a frozen graph whose     *
+ * edges may follow a travel time profile instead of a fixed weight. A    *
+ * query leaves the source at a given time, and the profile of every edge *
+ * is evaluated at the time the search arrives at its start. Since every  *
+ * profile is FIFO, the earliest arrival at a vertex is also the best     *
+ * time to continue from it, which keeps Dijkstras algorithm correct.     *
+ * Changing the profile of an edge does not require a new graph. Like the *
+ * other engines it reuses its search space and must not be shared by     *
+ * threads.                                                               *
+ **************************************************************************/
+
+public class TimeDependentDijkstra<E>
+{
+    // The graph that is searched
+    private final FrozenGraph<E> graph;
+
+    // The profiles the edges refer to
+    private final TravelTimeProfiles profiles;
+
+    // The profile of every edge, or -1 if the edge keeps the weight of the graph
+    private final int[] edgeProfile;
+
+    // The queue, arrival times and predecessors of the last search
+    private final SearchSpace space;
+
+    public TimeDependentDijkstra (FrozenGraph<E> graph, TravelTimeProfiles profiles) throws IllegalArgumentException
+    {
+        if (graph.minEdgeWeight() < 0)
+            throw new IllegalArgumentException ("Negative edge weight " + graph.minEdgeWeight() + " found!");
+
+        this.graph = graph;
+        this.profiles = profiles;
+        edgeProfile = new int[graph.edgeCount()];
+        Arrays.fill(edgeProfile, -1);
+
+        space = new SearchSpace(graph.size());
+    }
+
+    // Returns the graph that is searched
+    public FrozenGraph<E> graph ()
+    {
+        return graph;
+    }
+
+    // Lets the edge between the given vertices follow the given profile,
+    // or keep the weight of the graph if the profile is -1
+    public void setProfile (E vertex1, E vertex2, int profile) throws IllegalArgumentException
+    {
+        if (profile < -1 || profile >= profiles.size())
+            throw new IllegalArgumentException ("Profile " + profile + " was not found!");
+
+        int edge = graph.edgeIndex(graph.checkedIndexOf(vertex1), graph.checkedIndexOf(vertex2));
+        if (edge < 0)
+            throw new IllegalArgumentException ("There is no edge between " + vertex1 + " and " + vertex2 + "!");
+        edgeProfile[edge] = profile;
+    }
+
+    // Returns the fastest paths from the given vertex to all the other vertices when leaving
+    // at the given time. The distances of the tree are travel times, not arrival times.
+    public ShortestPathTree<E> fastestPaths (E vertex, long departure) throws IllegalArgumentException
+    {
+        int source = graph.checkedIndexOf(vertex);
+        this.search (source, -1, departure);
+
+        long[] arrival = space.distance;
+        long[] travelTime = new long[graph.size()];
+        for (int v = 0; v < travelTime.length; v++)
+            travelTime[v] = arrival[v] == ShortestPathTree.INFINITY ? ShortestPathTree.INFINITY : arrival[v] - departure;
+        return new ShortestPathTree<E>(graph, source, travelTime, space.predecessor.clone());
+    }
+
+    // Returns the fastest path between the given vertices when leaving at the given time,
+    // or null if there is none. The weight of the path is its travel time.
+    public Path<E> fastestPath (E source, E target, long departure) throws IllegalArgumentException
+    {
+        int sourceIndex = graph.checkedIndexOf(source);
+        int targetIndex = graph.checkedIndexOf(target);
+        this.search (sourceIndex, targetIndex, departure);
+        if (space.distance[targetIndex] == ShortestPathTree.INFINITY)
+            return null;
+
+        return space.pathTo(graph, targetIndex, space.distance[targetIndex] - departure);
+    }
+
+    // Returns the earliest time the target can be reached when leaving the source
+    // at the given time, or ShortestPathTree.INFINITY if it can not be reached
+    public long arrivalTime (E source, E target, long departure) throws IllegalArgumentException
+    {
+        int targetIndex = graph.checkedIndexOf(target);
+        this.search (graph.checkedIndexOf(source), targetIndex, departure);
+        return space.distance[targetIndex];
+    }
+
+    // Searches from the source leaving at the given time until the target is settled,
+    // or until every vertex is settled if the target is -1. The distances of the
+    // search space are arrival times.
+    private void search (int source, int target, long departure)
+    {
+        space.reset();
+        space.reach(source, departure, -1);
+        while (!space.isEmpty())
+        {
+            int v = space.settle();
+            if (v == target)
+                break;
+
+            long time = space.distance[v];
+            for (int edge = graph.firstEdge[v]; edge < graph.firstEdge[v + 1]; edge++)
+            {
+                long travelTime = edgeProfile[edge] == -1 ? graph.edgeWeight[edge]
+                                                          : profiles.travelTime(edgeProfile[edge], time);
+                long newArrival = time + travelTime;
+                if (newArrival < time)
+                    newArrival = ShortestPathTree.INFINITY;
+
+                space.reach(graph.edgeTarget[edge], newArrival, v);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class storing travel time profiles: piecewise linear functions     *
+ * from the time of departure to the time it takes to travel an edge.     *
+ * A profile is given by its breakpoints within one period, such as a     *
+ * day, and repeats every period. Between two breakpoints the travel time *
+ * is interpolated linearly, also from the last breakpoint to the first   *
+ * one of the next period. The breakpoints of all profiles are kept in    *
+ * shared arrays, and a profile that is added again gets the id of the    *
+ * equal profile added before, so edges following the same traffic       *
+ * pattern share their storage.                                           *
+ * Every profile must be FIFO: leaving later never means arriving         *
+ * earlier, so the travel time may fall by at most one per time unit.     *
+ **************************************************************************/
+
+public class TravelTimeProfiles
+{
+    // The length of the period every profile repeats with
+    private final int period;
+
+    // The breakpoints of profile p are found between
+    // profileStart[p] and profileStart[p + 1]
+    private int[] profileStart = new int[16];
+
+    // The time within the period and the travel time of every breakpoint
+    private int[] pointTime = new int[64], pointCost = new int[64];
+
+    // The amount of profiles and breakpoints
+    private int profiles = 0, points = 0;
+
+    // Maps a hash of the breakpoints to the last profile added with that hash. The
+    // breakpoints themselves are only kept in the shared arrays.
+    private final HashMap<Integer, Integer> lastWithHash = new HashMap<Integer, Integer>();
+
+    // The profile added before every profile with the same hash, or -1
+    private int[] sameHash = new int[16];
+
+    // Creates an empty store of profiles repeating with the given period
+    public TravelTimeProfiles (int period) throws IllegalArgumentException
+    {
+        if (period <= 0)
+            throw new IllegalArgumentException ("The period must be positive!");
+        this.period = period;
+    }
+
+    // Returns the length of the period every profile repeats with
+    public int period ()
+    {
+        return period;
+    }
+
+    // Returns the amount of different profiles
+    public int size ()
+    {
+        return profiles;
+    }
+
+    // Returns the amount of breakpoints of all profiles together
+    public int breakpointCount ()
+    {
+        return points;
+    }
+
+    // Adds the profile with the given breakpoints and returns its id. The times must
+    // be ascending within [0, period), the travel times must not be negative.
+    public int add (int[] times, int[] costs) throws IllegalArgumentException
+    {
+        if (times.length == 0 || times.length != costs.length)
+            throw new IllegalArgumentException ("Expected the same, positive, amount of times and travel times!");
+        for (int index = 0; index < times.length; index++)
+        {
+            if (times[index] < 0 || times[index] >= period || (index > 0 && times[index] <= times[index - 1]))
+                throw new IllegalArgumentException ("The times must be ascending within the period!");
+            if (costs[index] < 0)
+                throw new IllegalArgumentException ("Negative travel time " + costs[index] + "!");
+        }
+        for (int index = 0; index < times.length; index++)
+        {
+            // The segment to the next breakpoint, which is the first one of the next period for the last
+            int next = (index + 1) % times.length;
+            long length = index + 1 < times.length ? (long) times[next] - times[index]
+                                                    : (long) times[next] + period - times[index];
+            if (costs[next] - costs[index] < -length)
+                throw new IllegalArgumentException ("The travel time falls faster than time passes after " + times[index] + "!");
+        }
+
+        int hash = 31 * Arrays.hashCode(times) + Arrays.hashCode(costs);
+        Integer last = lastWithHash.get(hash);
+        for (int profile = last == null ? -1 : last; profile != -1; profile = sameHash[profile])
+            if (this.hasBreakpoints (profile, times, costs))
+                return profile;
+
+        if (profiles + 2 > profileStart.length)
+        {
+            profileStart = Arrays.copyOf(profileStart, 2 * profileStart.length);
+            sameHash = Arrays.copyOf(sameHash, profileStart.length);
+        }
+        if (points + times.length > pointTime.length)
+        {
+            int capacity = Math.max(2 * pointTime.length, points + times.length);
+            pointTime = Arrays.copyOf(pointTime, capacity);
+            pointCost = Arrays.copyOf(pointCost, capacity);
+        }
+        System.arraycopy(times, 0, pointTime, points, times.length);
+        System.arraycopy(costs, 0, pointCost, points, costs.length);
+        points += times.length;
+        sameHash[profiles] = last == null ? -1 : last;
+        lastWithHash.put(hash, profiles);
+        profileStart[++profiles] = points;
+
+        return profiles - 1;
+    }
+
+    // Checks if the given profile has exactly the given breakpoints
+    private boolean hasBreakpoints (int profile, int[] times, int[] costs)
+    {
+        int first = profileStart[profile];
+        if (profileStart[profile + 1] - first != times.length)
+            return false;
+        for (int index = 0; index < times.length; index++)
+            if (pointTime[first + index] != times[index] || pointCost[first + index] != costs[index])
+                return false;
+
+        return true;
+    }
+
+    // Returns the time it takes to travel an edge with the given profile when leaving
+    // at the given time, rounded down
+    public long travelTime (int profile, long departure) throws IllegalArgumentException
+    {
+        if (profile < 0 || profile >= profiles)
+            throw new IllegalArgumentException ("Profile " + profile + " was not found!");
+
+        int first = profileStart[profile];
+        int last = profileStart[profile + 1] - 1;
+        if (first == last)
+            return pointCost[first];
+
+        // Find the last breakpoint at or before the time within the period
+        long time = Math.floorMod(departure, (long) period);
+        int low = first, high = last;
+        while (low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+            if (pointTime[middle] <= time)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        long startTime, endTime;
+        int startCost, endCost;
+        if (pointTime[low] > time)
+        {
+            // Before the first breakpoint, on the segment from the last one of the previous period
+            startTime = pointTime[last] - period;
+            startCost = pointCost[last];
+            endTime = pointTime[first];
+            endCost = pointCost[first];
+        }
+        else if (low == last)
+        {
+            startTime = pointTime[last];
+            startCost = pointCost[last];
+            endTime = pointTime[first] + (long) period;
+            endCost = pointCost[first];
+        }
+        else
+        {
+            startTime = pointTime[low];
+            startCost = pointCost[low];
+            endTime = pointTime[low + 1];
+            endCost = pointCost[low + 1];
+        }
+
+        return startCost + Math.floorDiv((long) (endCost - startCost) * (time - startTime), endTime - startTime);
+    }
+}
@@ -0,0 +1,1393 @@
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class checking the faster engines against simpler computations of  *
+ * the same results on small pseudo random graphs. Every check throws an  *
+ * IllegalStateException at the first result that differs.                *
+ **************************************************************************/
+
+public class Verification
+{
+    // The amount of random graphs every check runs on
+    public static final int GRAPHS = 50;
+
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        checkHierarchy();
+        System.out.println("Contraction hierarchy: OK");
+        checkHilbertOrder();
+        System.out.println("Hilbert order: OK");
+        checkKShortestPaths();
+        System.out.println("K shortest paths: OK");
+        checkOverlay();
+        System.out.println("Overlay graph: OK");
+        checkMultiWeight();
+        System.out.println("Multiple weights: OK");
+        checkCentrality();
+        System.out.println("Centrality: OK");
+        checkResultWriter();
+        System.out.println("Result writer: OK");
+        checkTimeDependent();
+        System.out.println("Time-dependent search: OK");
+        checkCoalescer();
+        System.out.println("Coalescer: OK");
+        checkCompressedGraph();
+        System.out.println("Compressed graph: OK");
+        checkBucketQueue();
+        System.out.println("Bucket queue: OK");
+        checkOrderings();
+        System.out.println("Orderings and range queries: OK");
+    }
+
+    // Checks the distances and distance tables of contraction hierarchies against
+    // Dijkstra, also with weights so large that shortcuts do not fit in an int, and
+    // checks that a hierarchy read back from a store gives the same distances while
+    // stale, corrupted or truncated files are not loaded
+    public static void checkHierarchy() throws IOException
+    {
+        File directory = Files.createTempDirectory("verification").toFile();
+        try
+        {
+            PrecomputationStore store = new PrecomputationStore(directory);
+            for (int seed = 0; seed < GRAPHS; seed++)
+            {
+                int minWeight = seed % 2 == 0 ? 1 : 1500000000;
+                FrozenGraph<Integer> g = randomGraph(30, 90, minWeight, minWeight + 600000000, seed);
+                DijkstraEngine<Integer> dijkstra = new DijkstraEngine<Integer>(g);
+                ContractionHierarchy<Integer> hierarchy = new ContractionHierarchy<Integer>(g);
+                store.save("hierarchy", hierarchy);
+                ContractionHierarchy<Integer> loaded = store.loadHierarchy("hierarchy", g);
+                if (loaded == null)
+                    throw new IllegalStateException ("The stored hierarchy was not found!");
+                int[][] arrays = {hierarchy.rank, g.edgeTarget, new int[0]};
+                store.saveArrays("arrays", g, arrays);
+                if (!Arrays.deepEquals(store.loadArrays("arrays", g), arrays))
+                    throw new IllegalStateException ("The stored arrays differ!");
+                checkStale(store, g, randomGraph(30, 90, minWeight, minWeight + 600000000, seed + GRAPHS), directory);
+
+                List<Integer> vertices = new ArrayList<Integer>();
+                for (int v = 0; v < g.size(); v++)
+                    vertices.add(v);
+                DistanceTable<Integer> table = hierarchy.distanceTable(vertices, vertices, 3);
+
+                for (int s = 0; s < g.size(); s++)
+                {
+                    ShortestPathTree<Integer> tree = dijkstra.shortestPaths(s);
+                    for (int t = 0; t < g.size(); t++)
+                    {
+                        long expected = tree.distance(t);
+                        if (hierarchy.distance(s, t) != expected || loaded.distance(s, t) != expected
+                            || table.distance(s, t) != expected)
+                            throw new IllegalStateException ("Distances from " + s + " to " + t + " differ!");
+                    }
+                }
+            }
+        }
+        finally
+        {
+            for (File file : directory.listFiles())
+                file.delete();
+            directory.delete();
+        }
+    }
+
+    // Checks that the hierarchy and the arrays stored for the given graph are neither loaded
+    // for another graph, not even from files renamed after it, nor from corrupted or truncated files
+    private static void checkStale(PrecomputationStore store, FrozenGraph<Integer> g, FrozenGraph<Integer> other,
+                                   File directory) throws IOException
+    {
+        long hash = PrecomputationStore.contentHash(g), otherHash = PrecomputationStore.contentHash(other);
+        if (hash == otherHash)
+            throw new IllegalStateException ("Two different graphs have the same hash!");
+        if (isLoaded(store, "hierarchy", other) || isLoaded(store, "arrays", other))
+            throw new IllegalStateException ("Data of another graph was loaded!");
+
+        for (String name : new String[] {"hierarchy", "arrays"})
+        {
+            File file = new File(directory, name + "-" + Long.toHexString(hash) + ".bin");
+            File renamed = new File(directory, name + "-" + Long.toHexString(otherHash) + ".bin");
+            byte[] content = Files.readAllBytes(file.toPath());
+            Files.write(renamed.toPath(), content);
+            if (isLoaded(store, name, other))
+                throw new IllegalStateException ("Data of another graph was loaded from " + renamed + "!");
+            renamed.delete();
+
+            // Flip a byte of the data, of the hash and of the length of the first array, then cut the file short
+            List<byte[]> damaged = new ArrayList<byte[]>();
+            for (int position : new int[] {content.length - 1, 8, 32})
+            {
+                byte[] flipped = content.clone();
+                flipped[position] ^= 1;
+                damaged.add(flipped);
+            }
+            for (int length : new int[] {content.length - 1, 20, 0})
+                damaged.add(Arrays.copyOf(content, length));
+            for (byte[] bytes : damaged)
+            {
+                Files.write(file.toPath(), bytes);
+                if (isLoaded(store, name, g))
+                    throw new IllegalStateException ("A damaged file of " + bytes.length + " bytes was loaded!");
+            }
+
+            Files.write(file.toPath(), content);
+            if (!isLoaded(store, name, g))
+                throw new IllegalStateException ("The restored " + name + " file was not loaded!");
+        }
+    }
+
+    // Checks if the store loads a hierarchy or arrays under the given name for the given graph
+    private static boolean isLoaded(PrecomputationStore store, String name, FrozenGraph<Integer> g) throws IOException
+    {
+        return store.loadHierarchy(name, g) != null || store.loadArrays(name, g) != null;
+    }
+
+    // Checks that VertexOrdering.hilbert orders vertices by their position on the curve,
+    // by placing them at the points of pseudo random positions on the curve, found with
+    // the inverse mapping from a position to a point
+    public static void checkHilbertOrder()
+    {
+        int side = 1 << 16;
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            Random random = new Random(seed);
+            int n = 100;
+            long[] positions = new long[n];
+            // The first and the last point of the curve span the whole grid, so no scaling is done
+            positions[0] = 0;
+            positions[1] = (long) side * side - 1;
+            for (int v = 2; v < n; v++)
+                positions[v] = random.nextLong() & 0xFFFFFFFFL;
+
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int v = 0; v < n; v++)
+            {
+                int[] point = hilbertPoint(side, positions[v]);
+                x[v] = point[0];
+                y[v] = point[1];
+            }
+
+            FrozenGraph<Integer> g = randomGraph(n, 0, 1, 1, seed);
+            int[] order = VertexOrdering.hilbert(g, x, y);
+            for (int index = 1; index < n; index++)
+                if (positions[order[index - 1]] > positions[order[index]])
+                    throw new IllegalStateException ("Vertex " + order[index - 1] + " comes before "
+                                                     + order[index] + " but lies later on the curve!");
+        }
+    }
+
+    // Checks k shortest paths against all paths without repeated vertices, found by a
+    // depth first search: the weights must be the k smallest, and every path must be a
+    // different path of the graph with the weight it claims
+    public static void checkKShortestPaths()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            FrozenGraph<Integer> g = randomGraph(8, 20, 1, 5, seed);
+            KShortestPaths<Integer> engine = new KShortestPaths<Integer>(g);
+            for (int s = 0; s < g.size(); s++)
+            {
+                for (int t = 0; t < g.size(); t++)
+                {
+                    if (s == t)
+                        continue;
+
+                    List<int[]> all = simplePaths(g, s, t);
+                    long[] expected = new long[all.size()];
+                    for (int index = 0; index < expected.length; index++)
+                        expected[index] = pathWeight(g, g.edgeWeight, all.get(index));
+                    Arrays.sort(expected);
+
+                    List<Path<Integer>> paths = engine.kShortestPaths(s, t, 6);
+                    if (paths.size() != Math.min(6, expected.length))
+                        throw new IllegalStateException ("Expected " + Math.min(6, expected.length) + " paths from "
+                                                         + s + " to " + t + " but found " + paths.size() + "!");
+                    HashSet<List<Integer>> seen = new HashSet<List<Integer>>();
+                    for (int index = 0; index < paths.size(); index++)
+                    {
+                        Path<Integer> path = paths.get(index);
+                        int[] vertices = toIndices(g, path.vertices());
+                        if (!seen.add(path.vertices()) || vertices[0] != s || vertices[vertices.length - 1] != t
+                            || !isSimple(vertices) || pathWeight(g, g.edgeWeight, vertices) != path.weight()
+                            || path.weight() != expected[index])
+                            throw new IllegalStateException ("Path " + index + " from " + s + " to " + t + " is wrong: " + path);
+                    }
+                }
+            }
+        }
+    }
+
+    // Checks the distances of overlay graphs with one and with two levels against the
+    // Floyd-Warshall algorithm, also after changing the weights of pseudo random edges
+    public static void checkOverlay()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            Random random = new Random(seed);
+            FrozenGraph<Integer> g = randomGraph(40, 120, 0, 20, seed);
+            int[] edgeWeight = Arrays.copyOf(g.edgeWeight, g.edgeCount());
+            List<OverlayGraph<Integer>> overlays = new ArrayList<OverlayGraph<Integer>>();
+            overlays.add(new OverlayGraph<Integer>(g, 4));
+            overlays.add(new OverlayGraph<Integer>(g, 8, 2));
+
+            for (int change = 0; change <= 3; change++)
+            {
+                if (change > 0)
+                {
+                    int edge = random.nextInt(g.edgeCount());
+                    int v = 0;
+                    while (g.edgeEnd(v) <= edge)
+                        v++;
+                    edgeWeight[edge] = random.nextInt(31);
+                    for (OverlayGraph<Integer> overlay : overlays)
+                        overlay.setEdgeWeight(v, g.edgeTarget(edge), edgeWeight[edge]);
+                }
+
+                long[][] expected = allDistances(g, edgeWeight);
+                for (OverlayGraph<Integer> overlay : overlays)
+                    for (int s = 0; s < g.size(); s++)
+                        for (int t = 0; t < g.size(); t++)
+                            if (overlay.distance(s, t) != expected[s][t])
+                                throw new IllegalStateException ("Distances from " + s + " to " + t + " differ after "
+                                                                 + change + " changes!");
+            }
+        }
+    }
+
+    // Checks the weighted sum searches of graphs with two criteria against the Floyd-Warshall
+    // algorithm, and their Pareto paths against the costs of all paths without repeated vertices
+    public static void checkMultiWeight()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            Random random = new Random(seed);
+            FrozenGraph<Integer> g = randomGraph(8, 20, 0, 5, seed);
+            MultiWeightGraph<Integer> m = new MultiWeightGraph<Integer>(g, 2);
+            int[] second = new int[g.edgeCount()];
+            for (int v = 0; v < g.size(); v++)
+            {
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                {
+                    second[edge] = random.nextInt(6);
+                    m.setWeight(1, v, g.edgeTarget(edge), second[edge]);
+                }
+            }
+
+            int[] coefficients = {1 + random.nextInt(3), random.nextInt(3)};
+            int[] sum = new int[g.edgeCount()];
+            for (int edge = 0; edge < sum.length; edge++)
+                sum[edge] = coefficients[0] * g.edgeWeight[edge] + coefficients[1] * second[edge];
+            long[][] expected = allDistances(g, sum);
+
+            for (int s = 0; s < g.size(); s++)
+            {
+                for (int t = 0; t < g.size(); t++)
+                {
+                    Path<Integer> path = m.shortestPath(s, t, coefficients);
+                    long weight = path == null ? ShortestPathTree.INFINITY : path.weight();
+                    if (weight != expected[s][t] || path != null && pathWeight(g, sum, toIndices(g, path.vertices())) != weight)
+                        throw new IllegalStateException ("Weighted sum paths from " + s + " to " + t + " differ!");
+
+                    List<long[]> front = paretoFront(g, second, simplePaths(g, s, t));
+                    List<Path<Integer>> paths = m.paretoPaths(s, t, 0, 1);
+                    if (paths.size() != front.size())
+                        throw new IllegalStateException ("Expected " + front.size() + " Pareto paths from " + s + " to "
+                                                         + t + " but found " + paths.size() + "!");
+                    for (int index = 0; index < paths.size(); index++)
+                    {
+                        Path<Integer> pareto = paths.get(index);
+                        long[] costs = m.costs(pareto);
+                        if (pareto.source() != s || pareto.target() != t || pareto.weight() != costs[0]
+                            || costs[0] != front.get(index)[0] || costs[1] != front.get(index)[1])
+                            throw new IllegalStateException ("Pareto path " + index + " from " + s + " to " + t + " is wrong: " + pareto);
+                    }
+                }
+            }
+        }
+    }
+
+    // Returns the different costs of the given paths in the weights of the graph and in the
+    // given second weights that no other path beats in both, ascending by the first
+    public static List<long[]> paretoFront(FrozenGraph<Integer> g, int[] second, List<int[]> paths)
+    {
+        List<long[]> costs = new ArrayList<long[]>();
+        for (int[] path : paths)
+            costs.add(new long[] {pathWeight(g, g.edgeWeight, path), pathWeight(g, second, path)});
+
+        List<long[]> front = new ArrayList<long[]>();
+        for (long[] candidate : costs)
+        {
+            boolean beaten = false;
+            for (long[] other : costs)
+                if (other[0] <= candidate[0] && other[1] <= candidate[1] && (other[0] < candidate[0] || other[1] < candidate[1]))
+                    beaten = true;
+            boolean found = false;
+            for (long[] kept : front)
+                if (kept[0] == candidate[0] && kept[1] == candidate[1])
+                    found = true;
+            if (!beaten && !found)
+                front.add(candidate);
+        }
+        Collections.sort(front, new Comparator<long[]>()
+        {
+            public int compare(long[] costs1, long[] costs2)
+            {
+                return Long.compare(costs1[0], costs2[0]);
+            }
+        });
+
+        return front;
+    }
+
+    // Checks betweenness and closeness, on one and on several threads, against their
+    // definitions, with the shortest paths counted from the Floyd-Warshall distances
+    public static void checkCentrality()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            FrozenGraph<Integer> g = randomGraph(12, 36, 1, 3, seed);
+            int n = g.size();
+            long[][] distance = allDistances(g, g.edgeWeight);
+            double[][] paths = new double[n][];
+            for (int s = 0; s < n; s++)
+                paths[s] = pathCounts(g, distance[s], s);
+
+            double[] betweenness = new double[n];
+            double[] closeness = new double[n];
+            for (int s = 0; s < n; s++)
+            {
+                int reach = 0;
+                long sum = 0;
+                for (int t = 0; t < n; t++)
+                {
+                    if (distance[s][t] == ShortestPathTree.INFINITY)
+                        continue;
+                    reach++;
+                    sum += distance[s][t];
+                    for (int v = 0; v < n; v++)
+                        if (v != s && v != t && distance[s][v] != ShortestPathTree.INFINITY
+                            && distance[v][t] != ShortestPathTree.INFINITY && distance[s][v] + distance[v][t] == distance[s][t])
+                            betweenness[v] += paths[s][v] * paths[v][t] / paths[s][t];
+                }
+                closeness[s] = reach <= 1 ? 0 : (reach - 1.0) / sum * ((reach - 1.0) / (n - 1));
+            }
+
+            Centrality<Integer> centrality = new Centrality<Integer>(g);
+            checkScores("Betweenness", betweenness, centrality.betweenness(1));
+            checkScores("Betweenness", betweenness, centrality.betweenness(4));
+            checkScores("Closeness", closeness, centrality.closeness(3));
+        }
+    }
+
+    // Returns the amount of shortest paths from the given source to every vertex, given the
+    // distances from the source, counted in the order of the distances. Needs positive weights.
+    public static double[] pathCounts(FrozenGraph<Integer> g, final long[] distance, int source)
+    {
+        Integer[] order = new Integer[g.size()];
+        for (int v = 0; v < order.length; v++)
+            order[v] = v;
+        Arrays.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer v1, Integer v2)
+            {
+                return Long.compare(distance[v1], distance[v2]);
+            }
+        });
+
+        double[] paths = new double[g.size()];
+        paths[source] = 1;
+        for (int w : order)
+        {
+            if (w == source || distance[w] == ShortestPathTree.INFINITY)
+                continue;
+            for (int v = 0; v < g.size(); v++)
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                    if (g.edgeTarget(edge) == w && distance[v] != ShortestPathTree.INFINITY
+                        && distance[v] + g.edgeWeight(edge) == distance[w])
+                        paths[w] += paths[v];
+        }
+
+        return paths;
+    }
+
+    // Checks that the given scores match the expected ones up to rounding
+    private static void checkScores(String name, double[] expected, double[] scores)
+    {
+        for (int v = 0; v < expected.length; v++)
+            if (Math.abs(scores[v] - expected[v]) > 1e-9 * Math.max(1, Math.abs(expected[v])))
+                throw new IllegalStateException (name + " of " + v + " is " + scores[v] + " instead of " + expected[v] + "!");
+    }
+
+    // Checks the JSON and the binary output of graphs, trees and paths by decoding them
+    // and comparing them with what was written, for all vertices and for a limited
+    // amount of them. The vertices are strings with characters that need escaping or
+    // several bytes, and the graphs are large enough to fill the buffer several times.
+    public static void checkResultWriter() throws IOException
+    {
+        String characters = "ab\"\\\n\u0001\u00e9\u20ac\ud83d\ude00\ud800";
+        for (int seed = 0; seed < GRAPHS / 5; seed++)
+        {
+            Random random = new Random(seed);
+            int n = 200 + random.nextInt(200);
+            WDGraph<String> g = new WDGraph<String>(n);
+            for (int v = 0; v < n; v++)
+            {
+                StringBuilder vertex = new StringBuilder();
+                for (int length = random.nextInt(8); length > 0; length--)
+                    vertex.append(characters.charAt(random.nextInt(characters.length())));
+                g.addVertex(vertex.append('#').append(v).toString());
+            }
+            for (int edge = 0; edge < 2 * n; edge++)
+                g.addEdge(g.vertexAt(random.nextInt(n)), g.vertexAt(random.nextInt(n)), random.nextInt(1000));
+            FrozenGraph<String> frozen = g.freeze();
+            ShortestPathTree<String> tree = new DijkstraEngine<String>(frozen).shortestPaths(frozen.vertex(0));
+
+            for (int maxVertices : new int[] {ResultWriter.ALL, n, n - 1, 17, 0})
+            {
+                int count = Math.min(n, maxVertices);
+                checkGraphJson(frozen, count, readJson(writeJson(g, maxVertices)));
+                checkGraphJson(frozen, count, readJson(writeJson(frozen, maxVertices)));
+                checkGraphBinary(frozen, count, writeBinary(g, maxVertices));
+                checkGraphBinary(frozen, count, writeBinary(frozen, maxVertices));
+                checkTreeJson(tree, count, readJson(writeJson(tree, maxVertices)));
+                checkTreeBinary(tree, count, writeBinary(tree, maxVertices));
+            }
+        }
+
+        List<Object> vertices = Arrays.<Object>asList(null, 7, 8000000000L, "x\"y", (short) -3);
+        Path<Object> path = new Path<Object>(vertices, 1234567890123L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeJson(path);
+        Map<?, ?> json = (Map<?, ?>) readJson(out.toByteArray());
+        List<?> jsonVertices = (List<?>) json.get("vertices");
+        if (!json.get("weight").equals(path.weight()) || jsonVertices.size() != vertices.size())
+            throw new IllegalStateException ("The JSON path is wrong!");
+        for (int index = 0; index < vertices.size(); index++)
+            checkVertex(jsonVertex(vertices.get(index)), jsonVertices.get(index));
+
+        out.reset();
+        new ResultWriter(out).writeBinary(path);
+        ByteBuffer binary = ByteBuffer.wrap(out.toByteArray());
+        if (binary.get() != 'P' || binary.getLong() != path.weight() || binary.getInt() != vertices.size())
+            throw new IllegalStateException ("The binary path is wrong!");
+        for (int index = 0; index < vertices.size(); index++)
+            checkVertex(binaryVertex(vertices.get(index)), readBinaryVertex(binary));
+        checkEnd(binary);
+    }
+
+    // Checks a decoded JSON graph, limited to the given amount of vertices, against the graph
+    private static void checkGraphJson(FrozenGraph<String> g, int count, Object decoded)
+    {
+        Map<?, ?> json = (Map<?, ?>) decoded;
+        List<?> vertices = (List<?>) json.get("vertices");
+        if (!json.get("size").equals((long) g.size()) || vertices.size() != count)
+            throw new IllegalStateException ("The JSON graph has the wrong size!");
+        for (int v = 0; v < count; v++)
+            checkVertex(jsonVertex(g.vertex(v)), vertices.get(v));
+
+        List<String> edges = new ArrayList<String>();
+        for (Object edge : (List<?>) json.get("edges"))
+        {
+            List<?> triple = (List<?>) edge;
+            edges.add(triple.get(0) + " " + triple.get(1) + " " + triple.get(2));
+        }
+        checkEdges(g, count, edges);
+    }
+
+    // Checks a binary graph, limited to the given amount of vertices, against the graph
+    private static void checkGraphBinary(FrozenGraph<String> g, int count, byte[] bytes)
+    {
+        ByteBuffer binary = ByteBuffer.wrap(bytes);
+        if (binary.get() != 'G' || binary.getInt() != g.size() || binary.getInt() != count)
+            throw new IllegalStateException ("The binary graph has the wrong size!");
+        for (int v = 0; v < count; v++)
+            checkVertex(binaryVertex(g.vertex(v)), readBinaryVertex(binary));
+
+        List<String> edges = new ArrayList<String>();
+        for (int v = 0; v < count; v++)
+            for (int degree = binary.getInt(); degree > 0; degree--)
+                edges.add(v + " " + binary.getInt() + " " + binary.getInt());
+        checkEdges(g, count, edges);
+        checkEnd(binary);
+    }
+
+    // Checks that the given edges, as "from to weight", are the edges of the given amount of
+    // first vertices of the graph, in any order
+    private static void checkEdges(FrozenGraph<String> g, int count, List<String> edges)
+    {
+        List<String> expected = new ArrayList<String>();
+        for (int v = 0; v < count; v++)
+            for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                expected.add(v + " " + g.edgeTarget(edge) + " " + g.edgeWeight(edge));
+        Collections.sort(expected);
+        Collections.sort(edges);
+        if (!expected.equals(edges))
+            throw new IllegalStateException ("The edges of " + count + " vertices differ!");
+    }
+
+    // Checks a decoded JSON tree, limited to the given amount of vertices, against the tree
+    private static void checkTreeJson(ShortestPathTree<String> tree, int count, Object decoded)
+    {
+        Map<?, ?> json = (Map<?, ?>) decoded;
+        List<?> vertices = (List<?>) json.get("vertices");
+        List<?> distances = (List<?>) json.get("distances");
+        List<?> predecessors = (List<?>) json.get("predecessors");
+        if (!json.get("size").equals((long) tree.graph().size()) || !json.get("source").equals((long) tree.sourceIndex())
+            || vertices.size() != count || distances.size() != count || predecessors.size() != count)
+            throw new IllegalStateException ("The JSON tree has the wrong size!");
+        for (int v = 0; v < count; v++)
+        {
+            checkVertex(jsonVertex(tree.graph().vertex(v)), vertices.get(v));
+            Object distance = tree.distanceAt(v) == ShortestPathTree.INFINITY ? null : tree.distanceAt(v);
+            if (distance == null ? distances.get(v) != null : !distance.equals(distances.get(v))
+                || !predecessors.get(v).equals((long) tree.predecessorAt(v)))
+                throw new IllegalStateException ("The JSON tree differs at " + v + "!");
+        }
+    }
+
+    // Checks a binary tree, limited to the given amount of vertices, against the tree
+    private static void checkTreeBinary(ShortestPathTree<String> tree, int count, byte[] bytes)
+    {
+        ByteBuffer binary = ByteBuffer.wrap(bytes);
+        if (binary.get() != 'T' || binary.getInt() != tree.graph().size() || binary.getInt() != count
+            || binary.getInt() != tree.sourceIndex())
+            throw new IllegalStateException ("The binary tree has the wrong size!");
+        for (int v = 0; v < count; v++)
+        {
+            checkVertex(binaryVertex(tree.graph().vertex(v)), readBinaryVertex(binary));
+            if (binary.getLong() != tree.distanceAt(v) || binary.getInt() != tree.predecessorAt(v))
+                throw new IllegalStateException ("The binary tree differs at " + v + "!");
+        }
+        checkEnd(binary);
+    }
+
+    // Returns the JSON output of the given graph
+    private static byte[] writeJson(WDGraph<String> g, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeJson(g, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the JSON output of the given graph
+    private static byte[] writeJson(FrozenGraph<String> g, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeJson(g, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the JSON output of the given tree
+    private static byte[] writeJson(ShortestPathTree<String> tree, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeJson(tree, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the binary output of the given graph
+    private static byte[] writeBinary(WDGraph<String> g, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeBinary(g, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the binary output of the given graph
+    private static byte[] writeBinary(FrozenGraph<String> g, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeBinary(g, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the binary output of the given tree
+    private static byte[] writeBinary(ShortestPathTree<String> tree, int maxVertices) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ResultWriter(out).writeBinary(tree, maxVertices);
+        return out.toByteArray();
+    }
+
+    // Returns the value the given vertex should be decoded to from JSON: a long for
+    // integers, and else its string after a round trip through UTF-8
+    private static Object jsonVertex(Object vertex)
+    {
+        if (vertex == null)
+            return null;
+        if (vertex instanceof Integer || vertex instanceof Long || vertex instanceof Short || vertex instanceof Byte)
+            return ((Number) vertex).longValue();
+        return new String(vertex.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    // Returns the value the given vertex should be decoded to from binary
+    private static Object binaryVertex(Object vertex)
+    {
+        if (vertex == null || vertex instanceof Long)
+            return vertex;
+        if (vertex instanceof Integer || vertex instanceof Short || vertex instanceof Byte)
+            return ((Number) vertex).intValue();
+        return new String(vertex.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    // Checks that a decoded vertex is the expected one
+    private static void checkVertex(Object expected, Object decoded)
+    {
+        if (expected == null ? decoded != null : !expected.equals(decoded))
+            throw new IllegalStateException ("Decoded " + decoded + " instead of " + expected + "!");
+    }
+
+    // Returns the next vertex of the given binary output
+    private static Object readBinaryVertex(ByteBuffer binary)
+    {
+        byte tag = binary.get();
+        if (tag == 0)
+            return null;
+        if (tag == 1)
+            return binary.getInt();
+        if (tag == 2)
+            return binary.getLong();
+        byte[] bytes = new byte[binary.getInt()];
+        binary.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Checks that the given binary output has been read completely
+    private static void checkEnd(ByteBuffer binary)
+    {
+        if (binary.hasRemaining())
+            throw new IllegalStateException (binary.remaining() + " bytes were left over!");
+    }
+
+    // Returns the JSON value in the given UTF-8 bytes: a map, a list, a long, a string or null
+    public static Object readJson(byte[] bytes)
+    {
+        JsonReader reader = new JsonReader(new String(bytes, StandardCharsets.UTF_8));
+        Object value = reader.value();
+        if (reader.position != reader.text.length())
+            throw new IllegalStateException ("Unexpected text after the JSON value at " + reader.position + "!");
+        return value;
+    }
+
+    // A reader of the JSON written by ResultWriter, which has no fractions and no white space
+    private static class JsonReader
+    {
+        final String text;
+        int position = 0;
+
+        JsonReader(String text)
+        {
+            this.text = text;
+        }
+
+        // Reads the value at the current position
+        Object value()
+        {
+            char c = text.charAt(position);
+            if (c == '{')
+            {
+                Map<String, Object> map = new LinkedHashMap<String, Object>();
+                position++;
+                while (text.charAt(position) != '}')
+                {
+                    String key = (String) this.value();
+                    this.expect(':');
+                    map.put(key, this.value());
+                    if (text.charAt(position) == ',')
+                        position++;
+                }
+                position++;
+                return map;
+            }
+            if (c == '[')
+            {
+                List<Object> list = new ArrayList<Object>();
+                position++;
+                while (text.charAt(position) != ']')
+                {
+                    list.add(this.value());
+                    if (text.charAt(position) == ',')
+                        position++;
+                }
+                position++;
+                return list;
+            }
+            if (c == '"')
+                return this.string();
+            if (text.startsWith("null", position))
+            {
+                position += 4;
+                return null;
+            }
+
+            int start = position;
+            if (c == '-')
+                position++;
+            while (position < text.length() && Character.isDigit(text.charAt(position)))
+                position++;
+            return Long.parseLong(text.substring(start, position));
+        }
+
+        // Reads the string at the current position
+        String string()
+        {
+            StringBuilder string = new StringBuilder();
+            this.expect('"');
+            for (char c = text.charAt(position++); c != '"'; c = text.charAt(position++))
+            {
+                if (c < 0x20)
+                    throw new IllegalStateException ("Unescaped control character at " + position + "!");
+                if (c != '\\')
+                    string.append(c);
+                else if (text.charAt(position) == 'u')
+                {
+                    string.append((char) Integer.parseInt(text.substring(position + 1, position + 5), 16));
+                    position += 5;
+                }
+                else
+                    string.append(text.charAt(position++));
+            }
+            return string.toString();
+        }
+
+        // Skips the given character, which must come next
+        void expect(char c)
+        {
+            if (text.charAt(position++) != c)
+                throw new IllegalStateException ("Expected " + c + " at " + (position - 1) + "!");
+        }
+    }
+
+    // Checks time-dependent searches against a label-correcting fixpoint, which relaxes every
+    // edge until no arrival improves, for departures before, within and many periods after
+    // the first period. Also checks that the accepted profiles are FIFO and that profiles
+    // whose travel time falls faster than time passes, also across the end of the period,
+    // are rejected.
+    public static void checkTimeDependent()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            Random random = new Random(seed);
+            FrozenGraph<Integer> g = randomGraph(30, 90, 1, 50, seed);
+            int period = 100 + random.nextInt(1000);
+            TravelTimeProfiles profiles = new TravelTimeProfiles(period);
+            for (int profile = 0; profile < 8; profile++)
+            {
+                int[][] breakpoints = randomFifoProfile(random, period, profile % 4 == 0);
+                profiles.add(breakpoints[0], breakpoints[1]);
+            }
+            for (int profile = 0; profile < profiles.size(); profile++)
+            {
+                for (int test = 0; test < 100; test++)
+                {
+                    long time = random.nextInt(4 * period) - 2 * period;
+                    if (time + profiles.travelTime(profile, time) > time + 1 + profiles.travelTime(profile, time + 1))
+                        throw new IllegalStateException ("Profile " + profile + " is not FIFO at " + time + "!");
+                }
+            }
+
+            TimeDependentDijkstra<Integer> engine = new TimeDependentDijkstra<Integer>(g, profiles);
+            int[] edgeProfile = new int[g.edgeCount()];
+            Arrays.fill(edgeProfile, -1);
+            for (int v = 0; v < g.size(); v++)
+            {
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                {
+                    if (random.nextInt(3) == 0)
+                        continue;
+                    edgeProfile[edge] = random.nextInt(profiles.size());
+                    engine.setProfile(v, g.edgeTarget(edge), edgeProfile[edge]);
+                }
+            }
+
+            long[] departures = {0, random.nextInt(period), -1 - random.nextInt(3 * period),
+                                 1000000000000L + random.nextInt(period)};
+            for (long departure : departures)
+            {
+                for (int s = 0; s < g.size(); s += 3)
+                {
+                    long[] arrival = earliestArrivals(g, profiles, edgeProfile, s, departure);
+                    ShortestPathTree<Integer> tree = engine.fastestPaths(s, departure);
+                    for (int t = 0; t < g.size(); t++)
+                    {
+                        long travelTime = arrival[t] == ShortestPathTree.INFINITY ? ShortestPathTree.INFINITY
+                                                                                   : arrival[t] - departure;
+                        if (engine.arrivalTime(s, t, departure) != arrival[t] || tree.distance(t) != travelTime)
+                            throw new IllegalStateException ("Arrivals from " + s + " at " + t + " differ when leaving at "
+                                                             + departure + "!");
+
+                        Path<Integer> path = engine.fastestPath(s, t, departure);
+                        if (path == null ? travelTime != ShortestPathTree.INFINITY : path.weight() != travelTime
+                            || travel(g, profiles, edgeProfile, toIndices(g, path.vertices()), departure) != arrival[t])
+                            throw new IllegalStateException ("The path from " + s + " to " + t + " when leaving at "
+                                                             + departure + " is wrong: " + path);
+                    }
+                }
+            }
+        }
+
+        TravelTimeProfiles profiles = new TravelTimeProfiles(100);
+        int[][] rejected = {{10, 20}, {50, 39},     // falls by 11 in 10
+                            {10, 90}, {29, 50},     // falls by 21 in 20 across the end of the period
+                            {0, 50, 60}, {0, 20, 9}};
+        for (int index = 0; index < rejected.length; index += 2)
+        {
+            try
+            {
+                profiles.add(rejected[index], rejected[index + 1]);
+                throw new IllegalStateException ("The profile " + Arrays.toString(rejected[index + 1]) + " is not FIFO!");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Rejected as it should be
+            }
+        }
+        if (profiles.size() != 0)
+            throw new IllegalStateException ("A rejected profile was kept!");
+        // Falling exactly as fast as time passes is still FIFO
+        profiles.add(new int[] {10, 20}, new int[] {50, 40});
+    }
+
+    // Checks that the edges of compressed graphs decode to the edges of the graphs they were
+    // made from, with weights that need 31 bits, 0 bits and a few bits, and with vertices
+    // that have no edges, and that Dijkstra on them finds the same distances
+    public static void checkCompressedGraph()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            Random random = new Random(seed);
+            int n = seed == 0 ? 5 : 100 + 60 * seed;
+            WDGraph<Integer> w = new WDGraph<Integer>(n);
+            for (int v = 0; v < n; v++)
+                w.addVertex(v);
+            // Every fifth vertex has no edges, and there are none at all in the first graph
+            for (int edge = 0; seed > 0 && edge < 3 * n; edge++)
+            {
+                int from = random.nextInt(n), to = random.nextInt(n);
+                if (from % 5 == 0 || to % 5 == 0)
+                    continue;
+                int weight = seed % 3 == 0 ? random.nextInt() & Integer.MAX_VALUE
+                           : seed % 3 == 1 ? 7 : 1 + random.nextInt(1 << (seed % 13));
+                w.addEdge(from, to, weight);
+            }
+            if (seed % 3 == 0 && seed > 0)
+            {
+                w.addEdge(1, 2, 0);
+                w.addEdge(2, 1, Integer.MAX_VALUE);
+            }
+            FrozenGraph<Integer> g = w.freeze();
+            CompressedGraph<Integer> compressed = new CompressedGraph<Integer>(g);
+            if (seed % 3 == 0 && seed > 0 && compressed.weightBits != 31)
+                throw new IllegalStateException ("Weights up to " + g.maxEdgeWeight() + " take " + compressed.weightBits + " bits!");
+
+            if (compressed.size() != g.size() || compressed.edgeCount() != g.edgeCount())
+                throw new IllegalStateException ("The compressed graph has other sizes!");
+            for (int v = 0; v < n; v++)
+            {
+                long[] expected = new long[g.edgeEnd(v) - g.edgeStart(v)];
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                    expected[edge - g.edgeStart(v)] = ((long) g.edgeTarget(edge) << 32) | g.edgeWeight(edge);
+                Arrays.sort(expected);
+                if (!Arrays.equals(decodeEdges(compressed, v), expected))
+                    throw new IllegalStateException ("The edges of " + v + " decode to other edges!");
+            }
+
+            DijkstraEngine<Integer> dijkstra = new DijkstraEngine<Integer>(g);
+            DijkstraEngine<Integer> compressedDijkstra = new DijkstraEngine<Integer>(compressed);
+            for (int s = 0; s < n; s += 1 + n / 20)
+            {
+                ShortestPathTree<Integer> tree = dijkstra.shortestPaths(s);
+                ShortestPathTree<Integer> compressedTree = compressedDijkstra.shortestPaths(s);
+                for (int t = 0; t < n; t++)
+                    if (compressedTree.distance(t) != tree.distance(t))
+                        throw new IllegalStateException ("Distances from " + s + " to " + t + " differ!");
+            }
+        }
+    }
+
+    // Returns the edges of the given vertex of the given compressed graph as the target shifted
+    // left 32 bits or'ed with the weight, in the order they are stored, decoded independently
+    // of the engines
+    private static long[] decodeEdges(CompressedGraph<Integer> compressed, int v)
+    {
+        long[] edges = new long[compressed.firstEdge[v + 1] - compressed.firstEdge[v]];
+        int position = compressed.firstByte[v];
+        int target = v;
+        for (int index = 0; index < edges.length; index++)
+        {
+            long value = 0;
+            for (int shift = 0; ; shift += 7)
+            {
+                int b = compressed.targets[position++] & 0xFF;
+                value |= (long) (b & 0x7F) << shift;
+                if (b < 0x80)
+                    break;
+            }
+            int delta = (int) value;
+            target = index == 0 ? v + ((delta >>> 1) ^ -(delta & 1)) : target + delta;
+            int weight = compressed.weight(compressed.firstEdge[v] + index);
+            edges[index] = ((long) target << 32) | weight;
+        }
+        if (position != compressed.firstByte[v + 1])
+            throw new IllegalStateException ("The neighbours of " + v + " take other bytes!");
+
+        return edges;
+    }
+
+    // Checks that engines queueing vertices in buckets find the same distances as engines
+    // using a binary heap, for whole searches, searches bounded by a distance and searches
+    // for a single target, on graphs with edges of weight 0 and of exactly the largest
+    // weight for which buckets are chosen
+    public static void checkBucketQueue()
+    {
+        int max = DijkstraEngine.BUCKET_THRESHOLD;
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            FrozenGraph<Integer> g = seed % 3 == 0 ? randomGraph(40, 160, 0, 2, seed)
+                                   : seed % 3 == 1 ? randomGraph(40, 160, max - 1, max, seed)
+                                   : randomGraph(40, 160, max, max, seed);
+            DijkstraEngine<Integer> heap = new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BINARY_HEAP);
+            DijkstraEngine<Integer> buckets = new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BUCKETS);
+            if (!new DijkstraEngine<Integer>(g).usesBuckets() || heap.usesBuckets() || !buckets.usesBuckets())
+                throw new IllegalStateException ("An engine for weights up to " + g.maxEdgeWeight() + " chose another queue!");
+
+            for (int s = 0; s < g.size(); s++)
+            {
+                ShortestPathTree<Integer> expected = heap.shortestPaths(s);
+                ShortestPathTree<Integer> tree = buckets.shortestPaths(s);
+                long limit = expected.distance((s + 1) % g.size());
+                if (limit == ShortestPathTree.INFINITY)
+                    limit = max;
+                ShortestPathTree<Integer> bounded = buckets.withinDistance(s, limit);
+                ShortestPathTree<Integer> heapBounded = heap.withinDistance(s, limit);
+                for (int t = 0; t < g.size(); t++)
+                {
+                    long distance = expected.distance(t);
+                    long boundedDistance = distance <= limit ? distance : ShortestPathTree.INFINITY;
+                    Path<Integer> path = buckets.shortestPath(s, t);
+                    if (tree.distance(t) != distance || bounded.distance(t) != boundedDistance
+                        || heapBounded.distance(t) != boundedDistance
+                        || (path == null ? distance != ShortestPathTree.INFINITY : path.weight() != distance))
+                        throw new IllegalStateException ("Distances from " + s + " to " + t + " differ!");
+                }
+            }
+        }
+    }
+
+    // Checks that the breadth first and reverse Cuthill-McKee orders are permutations of the
+    // vertices, that a graph reordered by them has the same distances, and that reachableWithin
+    // passes exactly the vertices within the budget, in settling order, for every order and queue
+    public static void checkOrderings()
+    {
+        for (int seed = 0; seed < GRAPHS; seed++)
+        {
+            // Sparse enough that there are vertices without edges and several components
+            FrozenGraph<Integer> g = randomGraph(60, 70 + seed, 1, seed % 2 == 0 ? 20 : 100000, seed);
+            DijkstraEngine<Integer> dijkstra = new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BINARY_HEAP);
+            List<FrozenGraph<Integer>> reordered = new ArrayList<FrozenGraph<Integer>>();
+            for (int[] order : new int[][] {VertexOrdering.breadthFirst(g), VertexOrdering.reverseCuthillMcKee(g)})
+            {
+                boolean[] seen = new boolean[g.size()];
+                for (int v : order)
+                {
+                    if (v < 0 || v >= g.size() || seen[v])
+                        throw new IllegalStateException ("The order " + Arrays.toString(order) + " is not a permutation!");
+                    seen[v] = true;
+                }
+                if (order.length != g.size())
+                    throw new IllegalStateException ("The order " + Arrays.toString(order) + " misses vertices!");
+                reordered.add(g.reorder(order));
+            }
+
+            for (int s = 0; s < g.size(); s++)
+            {
+                ShortestPathTree<Integer> expected = dijkstra.shortestPaths(s);
+                long budget = expected.distance((s + 7) % g.size());
+                if (budget == ShortestPathTree.INFINITY)
+                    budget = seed % 2 == 0 ? 30 : 150000;
+                for (FrozenGraph<Integer> r : reordered)
+                {
+                    ShortestPathTree<Integer> tree = new DijkstraEngine<Integer>(r).shortestPaths(s);
+                    for (int t = 0; t < g.size(); t++)
+                        if (tree.distance(t) != expected.distance(t))
+                            throw new IllegalStateException ("Distances from " + s + " to " + t + " differ after reordering!");
+                }
+
+                List<DijkstraEngine<Integer>> engines = new ArrayList<DijkstraEngine<Integer>>();
+                engines.add(dijkstra);
+                engines.add(new DijkstraEngine<Integer>(g, DijkstraEngine.Queue.BUCKETS));
+                for (FrozenGraph<Integer> r : reordered)
+                    engines.add(new DijkstraEngine<Integer>(r));
+                for (DijkstraEngine<Integer> engine : engines)
+                    checkReachable(engine, s, budget, expected);
+            }
+        }
+    }
+
+    // Checks that reachableWithin passes the vertices at most the given budget away from the
+    // given source with their distances in the given tree, each once and by ascending distance
+    private static void checkReachable(DijkstraEngine<Integer> engine, int s, long budget,
+                                       final ShortestPathTree<Integer> expected)
+    {
+        final Map<Integer, Long> passed = new LinkedHashMap<Integer, Long>();
+        final long[] last = {0};
+        int count = engine.reachableWithin(s, budget, new DistanceConsumer<Integer>()
+        {
+            public void accept(Integer vertex, long distance)
+            {
+                if (passed.put(vertex, distance) != null || distance < last[0] || distance != expected.distance(vertex))
+                    throw new IllegalStateException (vertex + " was passed again, out of order or at a wrong distance!");
+                last[0] = distance;
+            }
+        });
+
+        int within = 0;
+        for (int t = 0; t < engine.graph().size(); t++)
+            if (expected.distance(t) <= budget)
+                within++;
+        if (count != passed.size() || passed.size() != within || last[0] > budget)
+            throw new IllegalStateException ("Other vertices than the " + within + " within " + budget + " of " + s + " were passed!");
+    }
+
+    // The amount of threads asking for the same source at once in checkCoalescer
+    public static final int THREADS = 8;
+
+    // Checks that threads asking a ShortestPathCoalescer for the same source at once share
+    // one computation and all get its result, and that a change to the graph between two
+    // queries makes the next one compute again
+    public static void checkCoalescer() throws InterruptedException
+    {
+        Random random = new Random(0);
+        final CountingGraph g = new CountingGraph(THREADS);
+        for (int v = 0; v < 60; v++)
+            g.addVertex(v);
+        for (int edge = 0; edge < 240; edge++)
+            g.addEdge(random.nextInt(60), random.nextInt(60), 1 + random.nextInt(100));
+        final ShortestPathCoalescer<Integer> coalescer = new ShortestPathCoalescer<Integer>(g);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<WDGraph<Integer>> results = Collections.synchronizedList(new ArrayList<WDGraph<Integer>>());
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        for (int thread = 0; thread < THREADS; thread++)
+        {
+            Thread t = new Thread(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        start.await();
+                        g.arrived.incrementAndGet();
+                        results.add(coalescer.optimalShortestPath(7));
+                    }
+                    catch (Throwable e)
+                    {
+                        failures.add(e);
+                    }
+                }
+            });
+            g.callers.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : g.callers)
+            t.join();
+
+        if (!failures.isEmpty())
+            throw new IllegalStateException ("A query failed!", failures.get(0));
+        if (g.computations.get() != 1)
+            throw new IllegalStateException (g.computations.get() + " computations ran for one source!");
+        if (results.size() != THREADS || coalescer.inFlight() != 0)
+            throw new IllegalStateException ("Queries are missing or still in flight!");
+        for (WDGraph<Integer> result : results)
+            if (result != results.get(0))
+                throw new IllegalStateException ("The threads got different results!");
+        String expected = g.optimalShortestPath(7, false).toString();
+        if (!results.get(0).toString().equals(expected))
+            throw new IllegalStateException ("The shared result differs from a computation of its own!");
+
+        // Once the graph changed, the next query must see the change
+        g.computations.set(0);
+        g.addEdge(7, 59, 1);
+        WDGraph<Integer> changed = coalescer.optimalShortestPath(7);
+        if (g.computations.get() != 1 || changed == results.get(0))
+            throw new IllegalStateException ("The query after a change did not compute again!");
+        if (!changed.toString().equals(g.optimalShortestPath(7, false).toString()) || changed.toString().equals(expected))
+            throw new IllegalStateException ("The query after a change returned the old result!");
+    }
+
+    // A graph counting its shortest path computations. While the threads of checkCoalescer
+    // are recorded, a computation waits until all the others wait for it, so that every
+    // thread asks while it runs.
+    private static class CountingGraph extends WDGraph<Integer>
+    {
+        // The amount of shortest path computations run
+        final AtomicInteger computations = new AtomicInteger();
+
+        // The threads asking at once, and the amount of them that have asked
+        final List<Thread> callers = new ArrayList<Thread>();
+        final AtomicInteger arrived = new AtomicInteger();
+
+        CountingGraph(int initialCapacity)
+        {
+            super(initialCapacity);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public WDGraph optimalShortestPath(Integer vertex, boolean printInfo)
+        {
+            computations.incrementAndGet();
+            if (callers.contains(Thread.currentThread()))
+            {
+                long deadline = System.currentTimeMillis() + 10000;
+                while (!this.othersWaiting())
+                {
+                    if (System.currentTimeMillis() > deadline)
+                        throw new IllegalStateException ("The other threads did not wait for the computation!");
+                    Thread.yield();
+                }
+            }
+
+            return super.optimalShortestPath(vertex, printInfo);
+        }
+
+        // Checks if every recorded thread has asked and all but the current one are waiting
+        private boolean othersWaiting()
+        {
+            if (arrived.get() < callers.size())
+                return false;
+            for (Thread t : callers)
+                if (t != Thread.currentThread() && t.getState() != Thread.State.WAITING)
+                    return false;
+
+            return true;
+        }
+    }
+
+    // Returns the times and travel times of a pseudo random FIFO profile: the travel times
+    // differ by at most the shortest time between two breakpoints, across the end of the
+    // period too, so they never fall faster than time passes
+    public static int[][] randomFifoProfile(Random random, int period, boolean constant)
+    {
+        int count = constant ? 1 : 2 + random.nextInt(6);
+        int[] times = new int[count];
+        times[0] = random.nextInt(period / count);
+        for (int index = 1; index < count; index++)
+            times[index] = times[index - 1] + 1 + random.nextInt(period / count - 1);
+
+        int gap = times[0] + period - times[count - 1];
+        for (int index = 1; index < count; index++)
+            gap = Math.min(gap, times[index] - times[index - 1]);
+        int base = random.nextInt(100);
+        int[] costs = new int[count];
+        for (int index = 0; index < count; index++)
+            costs[index] = base + random.nextInt(gap + 1);
+
+        return new int[][] {times, costs};
+    }
+
+    // Returns the earliest arrival at every vertex when leaving the source at the given time,
+    // found by relaxing every edge until no arrival improves
+    public static long[] earliestArrivals(FrozenGraph<Integer> g, TravelTimeProfiles profiles, int[] edgeProfile,
+                                          int source, long departure)
+    {
+        long[] arrival = new long[g.size()];
+        Arrays.fill(arrival, ShortestPathTree.INFINITY);
+        arrival[source] = departure;
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (int v = 0; v < g.size(); v++)
+            {
+                if (arrival[v] == ShortestPathTree.INFINITY)
+                    continue;
+                for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                {
+                    long next = arrival[v] + travelTime(g, profiles, edgeProfile, edge, arrival[v]);
+                    if (next < arrival[g.edgeTarget(edge)])
+                    {
+                        arrival[g.edgeTarget(edge)] = next;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        return arrival;
+    }
+
+    // Returns the arrival at the end of the given path when leaving at the given time
+    public static long travel(FrozenGraph<Integer> g, TravelTimeProfiles profiles, int[] edgeProfile,
+                              int[] path, long departure)
+    {
+        long time = departure;
+        for (int index = 0; index + 1 < path.length; index++)
+            time += travelTime(g, profiles, edgeProfile, g.edgeIndex(path[index], path[index + 1]), time);
+
+        return time;
+    }
+
+    // Returns the travel time of the given edge when leaving at the given time
+    private static long travelTime(FrozenGraph<Integer> g, TravelTimeProfiles profiles, int[] edgeProfile,
+                                   int edge, long time)
+    {
+        return edgeProfile[edge] == -1 ? g.edgeWeight(edge) : profiles.travelTime(edgeProfile[edge], time);
+    }
+
+    // Returns the distances between all vertices, given the weight of every edge of the
+    // graph, computed with the Floyd-Warshall algorithm
+    public static long[][] allDistances(FrozenGraph<Integer> g, int[] edgeWeight)
+    {
+        int n = g.size();
+        long[][] distance = new long[n][n];
+        for (int v = 0; v < n; v++)
+        {
+            Arrays.fill(distance[v], ShortestPathTree.INFINITY);
+            distance[v][v] = 0;
+            for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                distance[v][g.edgeTarget(edge)] = Math.min(distance[v][g.edgeTarget(edge)], edgeWeight[edge]);
+        }
+
+        for (int k = 0; k < n; k++)
+            for (int i = 0; i < n; i++)
+                for (int j = 0; j < n; j++)
+                    if (distance[i][k] != ShortestPathTree.INFINITY && distance[k][j] != ShortestPathTree.INFINITY
+                        && distance[i][k] + distance[k][j] < distance[i][j])
+                        distance[i][j] = distance[i][k] + distance[k][j];
+
+        return distance;
+    }
+
+    // Returns every path without repeated vertices between the given vertices, as vertex indices
+    public static List<int[]> simplePaths(FrozenGraph<Integer> g, int source, int target)
+    {
+        List<int[]> paths = new ArrayList<int[]>();
+        int[] path = new int[g.size()];
+        path[0] = source;
+        extendPaths(g, path, 1, new boolean[g.size()], target, paths);
+        return paths;
+    }
+
+    // Adds every path without repeated vertices that continues the given path to the target
+    private static void extendPaths(FrozenGraph<Integer> g, int[] path, int length, boolean[] onPath,
+                                    int target, List<int[]> paths)
+    {
+        int v = path[length - 1];
+        if (v == target)
+        {
+            paths.add(Arrays.copyOf(path, length));
+            return;
+        }
+
+        onPath[v] = true;
+        for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+        {
+            int next = g.edgeTarget(edge);
+            if (onPath[next])
+                continue;
+            path[length] = next;
+            extendPaths(g, path, length + 1, onPath, target, paths);
+        }
+        onPath[v] = false;
+    }
+
+    // Returns the weight of the given path, given the weight of every edge of the graph
+    public static long pathWeight(FrozenGraph<Integer> g, int[] edgeWeight, int[] path)
+    {
+        long weight = 0;
+        for (int index = 0; index + 1 < path.length; index++)
+        {
+            int edge = g.edgeIndex(path[index], path[index + 1]);
+            if (edge < 0)
+                throw new IllegalStateException ("There is no edge between " + path[index] + " and " + path[index + 1] + "!");
+            weight += edgeWeight[edge];
+        }
+
+        return weight;
+    }
+
+    // Returns the indices of the given vertices
+    public static int[] toIndices(FrozenGraph<Integer> g, List<Integer> vertices)
+    {
+        int[] indices = new int[vertices.size()];
+        for (int index = 0; index < indices.length; index++)
+            indices[index] = g.indexOf(vertices.get(index));
+
+        return indices;
+    }
+
+    // Checks that the given path visits no vertex twice
+    public static boolean isSimple(int[] path)
+    {
+        HashSet<Integer> visited = new HashSet<Integer>();
+        for (int v : path)
+            if (!visited.add(v))
+                return false;
+
+        return true;
+    }
+
+    // Returns the point at the given position on a Hilbert curve through a grid of the given
+    // side, which must be a power of 2
+    public static int[] hilbertPoint(int side, long position)
+    {
+        int x = 0, y = 0;
+        long t = position;
+        for (int s = 1; s < side; s *= 2)
+        {
+            int rx = (int) (1 & (t / 2));
+            int ry = (int) (1 & (t ^ rx));
+            if (ry == 0)
+            {
+                if (rx == 1)
+                {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+            x += s * rx;
+            y += s * ry;
+            t /= 4;
+        }
+
+        return new int[] {x, y};
+    }
+
+    // Returns a graph of the given amount of vertices with the given amount of pseudo
+    // random edges, whose weights lie between minWeight and maxWeight
+    public static FrozenGraph<Integer> randomGraph(int vertices, int edges, int minWeight, int maxWeight, long seed)
+    {
+        Random random = new Random(seed);
+        WDGraph<Integer> g = new WDGraph<Integer>(vertices);
+        for (int v = 0; v < vertices; v++)
+            g.addVertex(v);
+        for (int edge = 0; edge < edges; edge++)
+            g.addEdge(random.nextInt(vertices), random.nextInt(vertices),
+                      minWeight + random.nextInt(maxWeight - minWeight + 1));
+
+        return g.freeze();
+    }
+}
@@ -0,0 +1,242 @@
+import java.util.Arrays;
+
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The class computing new orders of the vertices of a frozen graph, so   *
+ * that vertices connected by an edge get indices close to each other.    *
+ * Every order is an array holding, for every new index, the old index of *
+ * the vertex placed there, to be passed on to FrozenGraph.reorder. The   *
+ * edges are followed in both directions.                                 *
+ **************************************************************************/
+
+public class VertexOrdering
+{
+    // The amount of cells of the Hilbert curve along each axis is 2 to this power
+    private static final int HILBERT_BITS = 16;
+
+    // Returns the order in which a breadth first search visits the vertices,
+    // starting a new search at the first vertex not visited yet
+    public static int[] breadthFirst (FrozenGraph<?> graph)
+    {
+        FrozenGraph<?> reverse = graph.reverse();
+        int n = graph.size();
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int tail = 0;
+        for (int start = 0; start < n; start++)
+        {
+            if (visited[start])
+                continue;
+            visited[start] = true;
+            int head = tail;
+            order[tail++] = start;
+            while (head < tail)
+            {
+                int v = order[head++];
+                tail = visit (graph, v, visited, order, tail);
+                tail = visit (reverse, v, visited, order, tail);
+            }
+        }
+
+        return order;
+    }
+
+    // Returns the reverse Cuthill-McKee order: a breadth first search from a vertex at
+    // the edge of the graph that visits the neighbours of every vertex by ascending
+    // degree, backwards. It keeps the edges closer to the diagonal than breadthFirst.
+    public static int[] reverseCuthillMcKee (FrozenGraph<?> graph)
+    {
+        FrozenGraph<?> reverse = graph.reverse();
+        int n = graph.size();
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++)
+            degree[v] = graph.edgeEnd(v) - graph.edgeStart(v) + reverse.edgeEnd(v) - reverse.edgeStart(v);
+
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int[] level = new int[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int start = 0; start < n; start++)
+        {
+            if (visited[start])
+                continue;
+
+            // Start from the vertex of smallest degree on the last level of a search from start
+            int root = peripheral (graph, reverse, start, degree, level, queue);
+            visited[root] = true;
+            int head = tail;
+            order[tail++] = root;
+            while (head < tail)
+            {
+                int v = order[head++];
+                int first = tail;
+                tail = visit (graph, v, visited, order, tail);
+                tail = visit (reverse, v, visited, order, tail);
+                sortByDegree (order, first, tail, degree);
+            }
+        }
+
+        for (int index = 0; index < n / 2; index++)
+        {
+            int v = order[index];
+            order[index] = order[n - 1 - index];
+            order[n - 1 - index] = v;
+        }
+        return order;
+    }
+
+    // Returns the order in which a Hilbert curve through the plane passes the vertices
+    // at the given coordinates, where vertex index v lies at (x[v], y[v])
+    public static int[] hilbert (FrozenGraph<?> graph, double[] x, double[] y) throws IllegalArgumentException
+    {
+        int n = graph.size();
+        if (x.length != n || y.length != n)
+            throw new IllegalArgumentException ("Expected coordinates for " + n + " vertices!");
+
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int v = 0; v < n; v++)
+        {
+            minX = Math.min(minX, x[v]);
+            maxX = Math.max(maxX, x[v]);
+            minY = Math.min(minY, y[v]);
+            maxY = Math.max(maxY, y[v]);
+        }
+        int side = 1 << HILBERT_BITS;
+        double scale = (side - 1) / Math.max(Math.max(maxX - minX, maxY - minY), Double.MIN_VALUE);
+
+        // Sort the vertices by their position on the curve, which fits in 32 bits only as an
+        // unsigned number. Flipping the sign bit of the keys makes the signed sort put them
+        // in unsigned order, and leaves the vertex in the low bits as it is.
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++)
+        {
+            int cellX = (int) ((x[v] - minX) * scale);
+            int cellY = (int) ((y[v] - minY) * scale);
+            keys[v] = ((hilbertIndex (side, cellX, cellY) << 32) | v) ^ Long.MIN_VALUE;
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[n];
+        for (int index = 0; index < n; index++)
+            order[index] = (int) keys[index];
+        return order;
+    }
+
+    // Returns the average difference between the indices of the two ends of an edge,
+    // which is what the orders try to keep small
+    public static double averageEdgeSpan (FrozenGraph<?> graph)
+    {
+        long span = 0;
+        for (int v = 0; v < graph.size(); v++)
+            for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+                span += Math.abs(graph.edgeTarget(edge) - v);
+
+        return graph.edgeCount() == 0 ? 0 : (double) span / graph.edgeCount();
+    }
+
+    // Appends the neighbours of the given vertex that are not visited yet to the order
+    private static int visit (FrozenGraph<?> graph, int v, boolean[] visited, int[] order, int tail)
+    {
+        for (int edge = graph.edgeStart(v); edge < graph.edgeEnd(v); edge++)
+        {
+            int neighbour = graph.edgeTarget(edge);
+            if (!visited[neighbour])
+            {
+                visited[neighbour] = true;
+                order[tail++] = neighbour;
+            }
+        }
+        return tail;
+    }
+
+    // Returns a vertex far from the given one, by repeating breadth first searches from
+    // the vertex of smallest degree on the last level while the amount of levels grows
+    private static int peripheral (FrozenGraph<?> graph, FrozenGraph<?> reverse, int start,
+                                   int[] degree, int[] level, int[] queue)
+    {
+        int root = start;
+        int depth = -1;
+        while (true)
+        {
+            // Level 0 means not visited, the root is on level 1
+            int tail = 0;
+            queue[tail++] = root;
+            level[root] = 1;
+            for (int head = 0; head < tail; head++)
+            {
+                int v = queue[head];
+                for (int pass = 0; pass < 2; pass++)
+                {
+                    FrozenGraph<?> g = pass == 0 ? graph : reverse;
+                    for (int edge = g.edgeStart(v); edge < g.edgeEnd(v); edge++)
+                    {
+                        int neighbour = g.edgeTarget(edge);
+                        if (level[neighbour] == 0)
+                        {
+                            level[neighbour] = level[v] + 1;
+                            queue[tail++] = neighbour;
+                        }
+                    }
+                }
+            }
+
+            int last = level[queue[tail - 1]];
+            int candidate = queue[tail - 1];
+            for (int index = tail - 1; index >= 0 && level[queue[index]] == last; index--)
+                if (degree[queue[index]] < degree[candidate])
+                    candidate = queue[index];
+            for (int index = 0; index < tail; index++)
+                level[queue[index]] = 0;
+
+            if (last <= depth)
+                return root;
+            depth = last;
+            root = candidate;
+        }
+    }
+
+    // Sorts the given part of the order ascending by degree
+    private static void sortByDegree (int[] order, int from, int to, int[] degree)
+    {
+        for (int index = from + 1; index < to; index++)
+        {
+            int v = order[index];
+            int position = index;
+            while (position > from && degree[order[position - 1]] > degree[v])
+            {
+                order[position] = order[position - 1];
+                position--;
+            }
+            order[position] = v;
+        }
+    }
+
+    // Returns the position of the given cell on the Hilbert curve through a square of the given side
+    private static long hilbertIndex (int side, int x, int y)
+    {
+        long index = 0;
+        for (int s = side / 2; s > 0; s /= 2)
+        {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+
+            // Rotate the quadrant so that the curve continues in the right direction
+            if (ry == 0)
+            {
+                if (rx == 1)
+                {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+}
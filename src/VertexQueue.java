@@ -0,0 +1,21 @@
+/**************************************************************************
+ * Last changed: 2026-10-18                                               *
+ *                                                                        *
+ * The interface representing a priority queue of vertex indices, used    *
+ * by the engines to pick the next vertex to settle.                      *
+ **************************************************************************/
+
+interface VertexQueue
+{
+    // Checks if the queue is empty
+    boolean isEmpty ();
+
+    // Adds the given vertex with the given key, or lowers its key if it is already queued
+    void update (int vertex, long key);
+
+    // Removes and returns the vertex with the smallest key
+    int extractMin ();
+
+    // Clears the queue of vertices
+    void clear ();
+}
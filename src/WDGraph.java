@@ -1,31 +1,15 @@
+import java.util.HashMap;
 import java.util.Iterator;
 
 /*******************************************************
  * Written by: Simon Cicek                             *
- * Last changed: 2012-05-09                            *
+ * Last changed: 2026-10-18                            *
  *                                                     *
  * The class implementing a weighted undirected graph. *
  *******************************************************/
 
 public class WDGraph<E>
 {
-    private static class Node
-    {
-        // Index of a neighbour
-        public int neighbourIndex;
-        // Weight of the edge
-        public int edgeWeight;
-        // Next node
-        public Node nextNode;
-
-        public Node (int neighbourIndex, int edgeWeight)
-        {
-            this.neighbourIndex = neighbourIndex;
-            this.edgeWeight = edgeWeight;
-            this.nextNode = null;
-        }
-    }
-    
     // Default capacity of the graph
     public static final int DEFAULT_CAPACITY = 100;
 
@@ -35,8 +19,11 @@ public class WDGraph<E>
     // The vertices of the graph
     private E[] vertices;
 
-    // Sequences of neighbours
-    private Node[] adjacencySequences;
+    // The edges of the graph, between the indices of the vertices
+    private final IntGraph edges;
+
+    // Maps every vertex to its index
+    private final HashMap<E, Integer> indices = new HashMap<E, Integer>();
 
     // Last index of the graph
     private int lastIndex = -1;
@@ -44,23 +31,29 @@ public class WDGraph<E>
     public WDGraph()
     {
         vertices = (E[]) new Object[DEFAULT_CAPACITY];
-        adjacencySequences = new Node[DEFAULT_CAPACITY];
+        edges = new IntGraph(DEFAULT_CAPACITY);
     }
 
     public WDGraph(int initialCapacity)
     {
         vertices = (E[]) new Object[initialCapacity];
-        adjacencySequences = new Node[initialCapacity];
+        edges = new IntGraph(initialCapacity);
     }
 
     public WDGraph (E[] vertices)
     {
         this.vertices = (E[]) new Object[vertices.length];
+        edges = new IntGraph(vertices.length);
         
         for (int index = 0; index < vertices.length; index++)
+        {
             this.vertices[index] = vertices[index];
+            edges.addVertex();
+            // The first of two equal vertices is the one that is found
+            if (vertices[index] != null && !indices.containsKey(vertices[index]))
+                indices.put(vertices[index], index);
+        }
         
-        adjacencySequences = new Node[vertices.length];
         lastIndex = vertices.length - 1;
     }
     
@@ -76,6 +69,22 @@ public class WDGraph<E>
         return lastIndex + 1;
     }
 
+    // Returns the version of the graph, which changes whenever the graph is modified
+    public int version ()
+    {
+        return edges.version();
+    }
+
+    // Returns the edges of the graph, between the indices of the vertices. This is the
+    // live IntGraph of the graph, not a copy, so it is internal to the package and only
+    // read from: changing it behind the back of the graph would desynchronise it from
+    // the vertices and their index. Outside the package the edges are read through an
+    // EdgeCursor or forEachNeighbour.
+    IntGraph intGraph ()
+    {
+        return edges;
+    }
+
     // Enlargens the capacity of the graph
     protected void enlarge ()
     {
@@ -83,34 +92,27 @@ public class WDGraph<E>
         int newLength = 1 + vertices.length + ENLARGE_VALUE * vertices.length / 100;
 
         E[] newVertices = (E[]) new Object[newLength];
-        Node[] newAdjacencySequences = new Node[newLength];
         
         for (int index = 0; index <= lastIndex; index++)
         {
             newVertices[index] = vertices[index];
             vertices[index] = null;
-            newAdjacencySequences[index] = adjacencySequences[index];
-            adjacencySequences[index] = null;
         }
 
         vertices = newVertices;
-        adjacencySequences = newAdjacencySequences;
     }
 
     // Returns the index of the given vertex, or -1 if the vertex is not found
     protected int indexOf (E vertex)
     {
-        int indexOfVertex = -1;
-        for (int index = 0; index <= lastIndex; index++)
-        {
-            if (vertex.equals(vertices[index]))
-            {
-                indexOfVertex = index;
-                break;
-            }
-        }
+        Integer index = indices.get(vertex);
+        return index == null ? -1 : index;
+    }
 
-        return indexOfVertex;
+    // Returns the vertex at the given index
+    E vertexAt (int index)
+    {
+        return vertices[index];
     }
 
     // Checks if the graph contains the given vertex
@@ -128,8 +130,9 @@ public class WDGraph<E>
             if (lastIndex == vertices.length - 1)
                 this.enlarge ();
 
-            lastIndex = lastIndex + 1;
+            lastIndex = edges.addVertex ();
             vertices[lastIndex] = vertex;
+            indices.put(vertex, lastIndex);
         }
     }
 
@@ -153,27 +156,45 @@ public class WDGraph<E>
             throw new IllegalArgumentException (vertex + " was not found!");
 
 
-        Node node = this.adjacencySequences[index];
-        int countNeighbours = 0;
-        while(node != null)
+        final E[] neighbours = (E[]) new Object[edges.degree(index)];
+        edges.forEachNeighbour(index, new IntIntConsumer()
         {
-            countNeighbours++;
-            node = node.nextNode;
-        }
+            int neighbourIndex = 0;
 
-        E[] neighbours = (E[]) new Object[countNeighbours];
-        node = this.adjacencySequences[index];
-        int neighbourIndex = 0;
-        
-        while(node != null)
-        {
-            neighbours[neighbourIndex++] = vertices[node.neighbourIndex];
-            node = node.nextNode;
-        }
+            public void accept (int neighbour, int edgeWeight)
+            {
+                neighbours[neighbourIndex++] = vertices[neighbour];
+            }
+        });
 
         return neighbours;
     }
 
+    // Passes every neighbour of the given vertex to the consumer, together with the
+    // weight of the edge to it, ascending by edge weight
+    public void forEachNeighbour (E vertex, NeighbourConsumer<E> consumer) throws IllegalArgumentException
+    {
+        int index = this.indexOf (vertex);
+        if (index < 0)
+            throw new IllegalArgumentException (vertex + " was not found!");
+
+        for (IntGraph.Node node = edges.firstNode(index); node != null; node = node.nextNode)
+            consumer.accept(vertices[node.neighbourIndex], node.edgeWeight);
+    }
+
+    // Returns a cursor over the edges of the graph, which reset moves to a vertex
+    public EdgeCursor<E> edgeCursor ()
+    {
+        return new EdgeCursor<E>(this, edges);
+    }
+
+    // Returns an immutable snapshot of the graph with its edges stored in flat arrays.
+    // The neighbours of every vertex keep their ascending order of edge weight.
+    public FrozenGraph<E> freeze ()
+    {
+        return edges.freeze (this.verticesView ());
+    }
+
     // Checks if an edge exists between the given vertices 
     public boolean hasEdge (E vertex1, E vertex2) throws IllegalArgumentException
     {
@@ -183,18 +204,8 @@ public class WDGraph<E>
         int index2 = this.indexOf (vertex2);
         if (index2 < 0)
             throw new IllegalArgumentException (vertex2 + " was not found!");
-      
-        Node node = adjacencySequences[index1];
-        boolean hasEdge = false;
-        while (!hasEdge && node != null)
-        {
-            if (node.neighbourIndex == index2)
-                hasEdge = true;
-            else
-                node = node.nextNode;
-        }
 
-        return hasEdge;
+        return edges.hasEdge(index1, index2);
     }
 
     // Returns the weight of the edge between the given vertices, if one exists.
@@ -207,65 +218,7 @@ public class WDGraph<E>
         if (index2 < 0)
             throw new IllegalArgumentException (vertex2 + " was not found!");
 
-        Node node = adjacencySequences[index1];
-        int edgeWeight = -1;
-        while(node != null)
-        {
-            if (node.neighbourIndex == index2)
-            {
-                edgeWeight = node.edgeWeight;
-                break;
-            }
-            else
-                node = node.nextNode;
-        }
-
-        return edgeWeight;
-    }
-
-    // Adds the given node to the sequence of the given index, basically adding a neighbour.
-    protected void addNode (Node node, int index)
-    {
-        Node currentNode = adjacencySequences[index];
-        if (currentNode == null)
-            adjacencySequences[index] = node;
-        else
-        {
-            Node previousNode = null;
-            while (currentNode != null && currentNode.edgeWeight < node.edgeWeight)
-            {
-                previousNode = currentNode;
-                currentNode = currentNode.nextNode;
-            }
-
-            if (previousNode == null)
-                adjacencySequences[index] = node;
-            else
-                previousNode.nextNode = node;
-    
-            node.nextNode = currentNode;
-        }
-    }
-
-    // Removes a node containing the second parameter 
-    // from the sequence decided by the first paramater
-    protected void removeNode (int seq, int neighbourIndex)
-    {
-        Node currentNode = adjacencySequences[seq];
-        Node previousNode = null;
-        while (currentNode != null && currentNode.neighbourIndex != neighbourIndex)
-        {
-            previousNode = currentNode;
-            currentNode = currentNode.nextNode;
-        }
-
-        if (currentNode != null)
-        {
-            if (previousNode != null)
-                previousNode.nextNode = currentNode.nextNode;
-            else
-                adjacencySequences[seq] = currentNode.nextNode;
-        }
+        return edges.edgeWeight(index1, index2);
     }
 
     // Adds and edge between the given vertices with the given weight
@@ -280,11 +233,7 @@ public class WDGraph<E>
         if (index2 < 0)
             throw new IllegalArgumentException (vertex2 + " was not found!");
         
-        if (this.hasEdge (vertex1, vertex2))
-            this.removeNode (index1, index2);
-
-        Node node = new Node(index2, edgeWeight);
-        this.addNode(node, index1);
+        edges.addEdge(index1, index2, edgeWeight);
     }
 
     // Removes an edge between two vertices
@@ -298,7 +247,7 @@ public class WDGraph<E>
         if (index2 < 0)
             throw new IllegalArgumentException (vertex2 + " was not found!");
 
-	this.removeNode (index1, index2);
+        edges.removeEdge(index1, index2);
     }
 
     // Removes all the edges of the given vertex
@@ -308,7 +257,7 @@ public class WDGraph<E>
         if (index < 0)
             throw new IllegalArgumentException (vertex + " was not found!");
 
-        adjacencySequences[index] = null;
+        edges.removeEdges(index);
     }
     
     // Removes the given vertext from the graph
@@ -317,50 +266,34 @@ public class WDGraph<E>
         int index = this.indexOf (vertex);
         if (index != -1)
         {
-            // Remove all edges to and from the vertex
-            Node currentNode = adjacencySequences[index];
-            while (currentNode != null)
-            {
-                this.removeNode(currentNode.neighbourIndex, index);
-                currentNode = currentNode.nextNode;
-            }
-            this.removeEdges (vertex);
-            
-	    for (int i = index + 1; i <= lastIndex; i++)
-            {
+            edges.removeVertex(index);
+            for (int i = index + 1; i <= lastIndex; i++)
                 vertices[i - 1] = vertices[i];
-                adjacencySequences[i - 1] = adjacencySequences[i];
-            }
             
             vertices[lastIndex] = null;
-            adjacencySequences[lastIndex] = null;
             lastIndex--;
-            
-            // Since we removed a vertex, we need to adjust the neighbour indices
-            for (int i = 0; i <= lastIndex; i++)
+
+            // The vertices after the removed one moved down one index
+            indices.remove(vertex);
+            for (int i = index; i <= lastIndex; i++)
             {
-                Node    node = adjacencySequences[i];
-                while (node != null)
-                {
-                    // A node with a index to a vertex that now resides 
-                    // on a lower index in the array of vertices
-                    if (node.neighbourIndex > index)
-                        node.neighbourIndex--;
-                    node = node.nextNode;
-                }
+                if (vertices[i] == null)
+                    continue;
+                Integer current = indices.get(vertices[i]);
+                if (current == null || current > i)
+                    indices.put(vertices[i], i);
             }
-	}
+        }
     }
 
     // Clears the graph of vertices and edges
     public void clear ()
     {
         for (int index = 0; index <= lastIndex; index++)
-        {
             vertices[index] = null;
-            adjacencySequences[index] = null;
-        }
         lastIndex = -1;
+        indices.clear();
+        edges.clear();
     }
     
     public WDGraph shortestPath(E vertex, boolean printInfo)
@@ -455,6 +388,7 @@ public class WDGraph<E>
                 System.out.println("\nIteration: " + ++iteration);
             
             // Pick the next NPN from NIV that has a valid path
+            npn = null;
             Iterator itr = niv.iterator();
             while(itr.hasNext())
             {
@@ -465,6 +399,9 @@ public class WDGraph<E>
                     break;
                 }
             }
+            // The vertices left in NIV can not be reached
+            if(npn == null)
+                break;
             
             // Update WFIV
             for(E v : vertices)
@@ -625,6 +562,7 @@ public class WDGraph<E>
                 System.out.println("\nIteration: " + ++iteration);
             
             // Pick the next NPN from NIV that has a valid path
+            npn = null;
             Iterator itr = niv.iterator();
             while(itr.hasNext())
             {
@@ -635,6 +573,9 @@ public class WDGraph<E>
                     break;
                 }
             }
+            // The vertices left in NIV can not be reached
+            if(npn == null)
+                break;
             
             // Update WFIV
             for(E v : vertices)
@@ -715,26 +656,18 @@ public class WDGraph<E>
         }
         s.append("}, Edges: {");
         
-        Node current = null;
+        int edgesStart = s.length();
         for(int i = 0; i < this.size(); i++)
         {
-            if(adjacencySequences[i] != null)
+            for(IntGraph.Node node = edges.firstNode(i); node != null; node = node.nextNode)
             {
-                current = adjacencySequences[i];
-                while(current != null)
-                {
-                    s.append("{" + vertices[i] + ", " + 
-                             vertices[current.neighbourIndex] + ", " + 
-                             current.edgeWeight + "}");
-                    if(current.nextNode != null)
-                        s.append(", ");
-                    current = current.nextNode;
-                }
-                s.append(", ");   
+                s.append('{').append(vertices[i]).append(", ").append(vertices[node.neighbourIndex])
+                 .append(", ").append(node.edgeWeight).append("}, ");
             }
         }
-        if(s.lastIndexOf("{") < s.lastIndexOf(", "))
-            s = new StringBuilder(s.substring(0, s.lastIndexOf(",")));
+        // Drop the separator after the last edge
+        if(s.length() > edgesStart)
+            s.setLength(s.length() - 2);
         s.append("}");
         
         return s.toString();